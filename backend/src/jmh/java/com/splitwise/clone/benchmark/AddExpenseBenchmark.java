@@ -0,0 +1,67 @@
+package com.splitwise.clone.benchmark;
+
+import com.splitwise.clone.dto.CreateExpenseRequest;
+import com.splitwise.clone.dto.ExpenseResponse;
+import com.splitwise.clone.dto.ExpenseSplitRequest;
+import com.splitwise.clone.enums.BalanceMode;
+import com.splitwise.clone.enums.SplitMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ExpenseService.addExpense} for one equally split expense in a 500-member group,
+ * by split count. With {@code roundTripMicros} above zero every statement the write
+ * path sends waits that long, so the score approximates write latency against a
+ * database that far away.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AddExpenseBenchmark {
+    private static final int MEMBERS = 500;
+
+    @Param({ "2", "20", "200", "500" })
+    public int splits;
+
+    @Param({ "0", "200" })
+    public long roundTripMicros;
+
+    private InMemoryServices services;
+    private CreateExpenseRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticGroup data = new SyntheticGroup(MEMBERS, 0, 42);
+        services = new InMemoryServices(data, BalanceMode.LEDGER);
+        services.roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+
+        UUID payer = data.members.get(0).userId();
+        List<ExpenseSplitRequest> splitRequests = new ArrayList<>(splits);
+        for (int i = 0; i < splits; i++) {
+            ExpenseSplitRequest split = new ExpenseSplitRequest();
+            split.setUserId(data.members.get(i).userId());
+            splitRequests.add(split);
+        }
+        request = new CreateExpenseRequest();
+        request.setGroupId(data.group.getId());
+        request.setDescription("Dinner");
+        request.setAmount(new BigDecimal("12345.67"));
+        request.setPaidBy(payer);
+        request.setCreatedBy(payer);
+        request.setSplitMode(SplitMode.EQUAL);
+        request.setSplits(splitRequests);
+    }
+
+    @Benchmark
+    public ExpenseResponse addExpense() {
+        return services.expenseService.addExpense(request);
+    }
+}
@@ -0,0 +1,60 @@
+package com.splitwise.clone.benchmark;
+
+import com.splitwise.clone.dto.BalanceSummaryResponse;
+import com.splitwise.clone.dto.DebtResponse;
+import com.splitwise.clone.enums.BalanceMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance and debt computation for one group. The group revision is bumped on every
+ * call so the snapshot cache never answers and each call measures a full computation.
+ * With {@code currencies} above 1 the group's balances are converted from the other
+ * currencies on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = { "-Xms3g", "-Xmx3g" })
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BalanceBenchmark {
+
+    @Param({ "5", "50", "500", "5000" })
+    public int members;
+
+    @Param({ "100", "10000", "1000000" })
+    public int expenses;
+
+    @Param({ "LEDGER", "IN_MEMORY" })
+    public BalanceMode mode;
+
+    @Param({ "1", "3" })
+    public int currencies;
+
+    private SyntheticGroup data;
+    private InMemoryServices services;
+    private UUID groupId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new SyntheticGroup(members, expenses, currencies, 42);
+        services = new InMemoryServices(data, mode);
+        groupId = data.group.getId();
+    }
+
+    @Benchmark
+    public List<BalanceSummaryResponse> groupBalances() {
+        services.invalidate(data);
+        return services.balanceService.getGroupBalances(groupId);
+    }
+
+    @Benchmark
+    public List<DebtResponse> groupDebts() {
+        services.invalidate(data);
+        return services.balanceService.getGroupDebts(groupId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.splitwise.clone.benchmark;
+
+import com.splitwise.clone.enums.DebtStrategy;
+import com.splitwise.clone.service.debt.DebtSimplificationEngine;
+import com.splitwise.clone.service.debt.DebtSimplifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debt simplification alone, on balances that sum to zero. {@code AUTO} runs the exact
+ * optimizer up to 16 members and pair matching above.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DebtSimplifierBenchmark {
+
+    @Param({ "5", "16", "50", "500", "5000" })
+    public int members;
+
+    @Param({ "GREEDY", "PAIR_MATCHING", "AUTO" })
+    public DebtStrategy strategy;
+
+    private DebtSimplificationEngine engine;
+    private long[] balances;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new DebtSimplificationEngine(strategy, 16, Duration.ofSeconds(10));
+        Random random = new Random(42);
+        balances = new long[members];
+        long sum = 0;
+        for (int i = 0; i < members - 1; i++) {
+            // Round amounts so some debtors and creditors match exactly
+            balances[i] = (random.nextInt(201) - 100) * 500L;
+            sum += balances[i];
+        }
+        balances[members - 1] = -sum;
+    }
+
+    @Benchmark
+    public List<DebtSimplifier.Transfer> simplify() {
+        return engine.simplify(balances);
+    }
+}
@@ -0,0 +1,43 @@
+package com.splitwise.clone.benchmark;
+
+import com.splitwise.clone.dto.ExpenseResponse;
+import com.splitwise.clone.enums.BalanceMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projection to DTO mapping of a group's full expense history, as done by
+ * {@code ExpenseService.getGroupExpenses}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = { "-Xms3g", "-Xmx3g" })
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExpenseMappingBenchmark {
+
+    @Param({ "5", "50", "500", "5000" })
+    public int members;
+
+    @Param({ "100", "10000", "1000000" })
+    public int expenses;
+
+    private InMemoryServices services;
+    private UUID groupId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticGroup data = new SyntheticGroup(members, expenses, 42);
+        services = new InMemoryServices(data, BalanceMode.LEDGER);
+        groupId = data.group.getId();
+    }
+
+    @Benchmark
+    public List<ExpenseResponse> groupExpenses() {
+        return services.expenseService.getGroupExpenses(groupId);
+    }
+}
@@ -0,0 +1,124 @@
+package com.splitwise.clone.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput with 16 threads spread over {@code groups} groups, replaying the
+ * statements of one expense write: the group version bump that {@code GroupService.lockForWrite}
+ * uses as its lock, an expense insert, and the commit. With {@code lockGroup} off the bump
+ * is skipped, showing what the per-group serialization costs.
+ *
+ * <p>Unlike the other benchmarks this one needs a real PostgreSQL; it works in a throwaway
+ * {@code contention_bench} schema, dropped afterwards. Point it at a database with
+ * {@code -Djmh.args="GroupWriteContention -jvmArgsAppend -Djmh.jdbc.url=jdbc:postgresql://host/db"}
+ * (plus {@code jmh.jdbc.user} and {@code jmh.jdbc.password}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(16)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GroupWriteContentionBenchmark {
+    private static final String SCHEMA = "contention_bench";
+
+    @Param({ "1", "16", "256" })
+    public int groups;
+
+    @Param({ "true", "false" })
+    public boolean lockGroup;
+
+    private UUID[] groupIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("CREATE TABLE " + SCHEMA + ".groups (id uuid PRIMARY KEY, version bigint NOT NULL)");
+            statement.execute("CREATE TABLE " + SCHEMA + ".expenses (id uuid PRIMARY KEY, "
+                    + "group_id uuid NOT NULL REFERENCES " + SCHEMA + ".groups (id), amount numeric(19, 2) NOT NULL)");
+            groupIds = new UUID[groups];
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO " + SCHEMA + ".groups (id, version) VALUES (?, 0)")) {
+                for (int i = 0; i < groups; i++) {
+                    groupIds[i] = UUID.randomUUID();
+                    insert.setObject(1, groupIds[i]);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            if (lockGroup) {
+                // Every write bumped its group exactly once, so no bump may have been lost
+                try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM " + SCHEMA + ".groups g "
+                        + "WHERE g.version <> (SELECT count(*) FROM " + SCHEMA + ".expenses e WHERE e.group_id = g.id)")) {
+                    rs.next();
+                    if (rs.getLong(1) != 0) {
+                        throw new IllegalStateException(rs.getLong(1) + " groups lost version bumps");
+                    }
+                }
+            }
+            statement.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private Connection connection;
+        private PreparedStatement lock;
+        private PreparedStatement insert;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            connection = connect();
+            connection.setAutoCommit(false);
+            lock = connection.prepareStatement("UPDATE " + SCHEMA + ".groups SET version = version + 1 WHERE id = ?");
+            insert = connection.prepareStatement(
+                    "INSERT INTO " + SCHEMA + ".expenses (id, group_id, amount) VALUES (?, ?, 12.34)");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int addExpense(Writer writer) throws SQLException {
+        UUID groupId = groupIds[ThreadLocalRandom.current().nextInt(groups)];
+        int rows = 0;
+        if (lockGroup) {
+            writer.lock.setObject(1, groupId);
+            rows += writer.lock.executeUpdate();
+        }
+        writer.insert.setObject(1, UUID.randomUUID());
+        writer.insert.setObject(2, groupId);
+        rows += writer.insert.executeUpdate();
+        writer.connection.commit();
+        return rows;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(
+                System.getProperty("jmh.jdbc.url", "jdbc:postgresql://localhost:5432/postgres"),
+                System.getProperty("jmh.jdbc.user", "postgres"),
+                System.getProperty("jmh.jdbc.password", ""));
+    }
+}
@@ -0,0 +1,51 @@
+package com.splitwise.clone.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds repository fakes as dynamic proxies that answer only the query methods a
+ * benchmark exercises, so measurements contain no JDBC or Hibernate work.
+ */
+final class InMemoryRepositories {
+    private InMemoryRepositories() {
+    }
+
+    static <T> Builder<T> fake(Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    static final class Builder<T> {
+        private final Class<T> type;
+        private final Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        Builder<T> on(String method, Function<Object[], Object> handler) {
+            handlers.put(method, handler);
+            return this;
+        }
+
+        T build() {
+            Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                    (self, method, args) -> {
+                        Function<Object[], Object> handler = handlers.get(method.getName());
+                        if (handler != null) {
+                            return handler.apply(args);
+                        }
+                        return switch (method.getName()) {
+                            case "toString" -> "InMemory" + type.getSimpleName();
+                            case "hashCode" -> System.identityHashCode(self);
+                            case "equals" -> self == args[0];
+                            default -> throw new UnsupportedOperationException(
+                                    type.getSimpleName() + "." + method.getName() + " is not faked");
+                        };
+                    });
+            return type.cast(proxy);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.splitwise.clone.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.clone.entity.User;
+import com.splitwise.clone.enums.BalanceMode;
+import com.splitwise.clone.enums.DebtStrategy;
+import com.splitwise.clone.repository.*;
+import com.splitwise.clone.repository.projection.GroupRow;
+import com.splitwise.clone.repository.projection.UserRow;
+import com.splitwise.clone.service.*;
+import com.splitwise.clone.service.debt.DebtSimplificationEngine;
+import com.splitwise.clone.service.fx.FxRateStore;
+import com.splitwise.clone.service.fx.FxService;
+import com.splitwise.clone.service.split.SplitCalculator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wires the real services around {@link InMemoryRepositories} fakes serving one
+ * {@link SyntheticGroup}. Writes are accepted and discarded; each statement the
+ * expense write path would send busy-waits for {@link #roundTripNanos}, with
+ * {@code saveAll} costing one round trip per JDBC batch.
+ */
+final class InMemoryServices {
+    private static final int JDBC_BATCH_SIZE = 100;
+
+    final BalanceService balanceService;
+    // groups.version of the synthetic group, as GroupRevisions reads it
+    private final AtomicLong groupVersion = new AtomicLong();
+    final ExpenseService expenseService;
+    long roundTripNanos;
+
+    InMemoryServices(SyntheticGroup data, BalanceMode mode) {
+        Map<UUID, User> users = new HashMap<>();
+        data.members.forEach(member -> users.put(member.userId(),
+                User.builder().id(member.userId()).name(member.name()).email(member.email()).build()));
+
+        GroupRepository groupRepository = InMemoryRepositories.fake(GroupRepository.class)
+                .on("findById", args -> Optional.of(data.group))
+                .on("findRowById", args -> Optional.of(new GroupRow(data.group.getId(), data.group.getName(),
+                        data.group.getCurrency(), data.group.getInviteToken(), null, data.group.getCreatedAt())))
+                .on("getReferenceById", args -> data.group)
+                // The version bump that takes the group lock
+                .on("lockForWrite", args -> {
+                    groupVersion.incrementAndGet();
+                    return roundTrip(1, 1);
+                })
+                .on("findVersionById", args -> roundTrip(1, Optional.of(groupVersion.get())))
+                .build();
+        UserRepository userRepository = InMemoryRepositories.fake(UserRepository.class)
+                .on("findRowById", args -> roundTrip(1, Optional.ofNullable(users.get(args[0]))
+                        .map(user -> new UserRow(user.getId(), user.getName(), user.getEmail()))))
+                .on("getReferenceById", args -> users.get(args[0]))
+                .on("findAllById", args -> roundTrip(1, ((Collection<?>) args[0]).stream()
+                        .map(users::get)
+                        .filter(Objects::nonNull)
+                        .toList()))
+                .build();
+        GroupMemberRepository groupMemberRepository = InMemoryRepositories.fake(GroupMemberRepository.class)
+                .on("findMemberRowsByGroupId", args -> data.members)
+                .on("findMemberIdsAmong", args -> roundTrip(1, ((Collection<?>) args[1]).stream()
+                        .filter(users::containsKey)
+                        .toList()))
+                .build();
+        ExpenseRepository expenseRepository = InMemoryRepositories.fake(ExpenseRepository.class)
+                .on("findActiveRowsByGroupId", args -> data.expenses)
+                .on("findPaidAmountsByGroupId", args -> data.paidAmounts)
+                .on("save", args -> roundTrip(1, args[0]))
+                .build();
+        ExpenseSplitRepository expenseSplitRepository = InMemoryRepositories.fake(ExpenseSplitRepository.class)
+                .on("saveAll", args -> roundTrip(batches(((Collection<?>) args[0]).size()), args[0]))
+                .on("findActiveRowsByGroupId", args -> data.splits)
+                .on("findOwedAmountsByGroupId", args -> data.owedAmounts)
+                .on("findRowsByExpenseIds", args -> ((Collection<?>) args[0]).stream()
+                        .flatMap(expenseId -> data.splitsByExpense.get(expenseId).stream())
+                        .toList())
+                .build();
+        SettlementRepository settlementRepository = InMemoryRepositories.fake(SettlementRepository.class)
+                .on("findRowsByGroupId", args -> data.settlements)
+                .on("findTransfersByGroupId", args -> data.transfers)
+                .build();
+        GroupBalanceRepository groupBalanceRepository = InMemoryRepositories.fake(GroupBalanceRepository.class)
+                .on("findAmountsByGroupId", args -> data.ledger)
+                .on("addToBalances", args -> roundTrip(1, ((Object[]) args[2]).length))
+                .build();
+
+        UserService userService = new UserService(userRepository);
+        OutboxService outboxService = new OutboxService(InMemoryRepositories.fake(OutboxEventRepository.class)
+                .on("saveAll", args -> roundTrip(batches(((Collection<?>) args[0]).size()), args[0]))
+                .build(),
+                new ObjectMapper(), event -> { });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FxService fxService = new FxService(new FxRateStore(new DefaultResourceLoader(), "classpath*:fx/*.csv"),
+                meterRegistry, 1_000);
+        GroupService groupService = new GroupService(groupRepository, groupMemberRepository, userService,
+
+                new FriendshipService(InMemoryRepositories.fake(FriendshipRepository.class).build()), outboxService,
+                fxService);
+        BalanceLedgerService balanceLedgerService = new BalanceLedgerService(groupBalanceRepository);
+        DebtSimplificationEngine debtSimplificationEngine = new DebtSimplificationEngine(DebtStrategy.AUTO, 16,
+                Duration.ofMillis(50));
+        BalanceSnapshotCache balanceSnapshotCache = new BalanceSnapshotCache(new GroupRevisions(groupRepository), meterRegistry, 1_000);
+
+        balanceService = new BalanceService(groupMemberRepository, expenseRepository, expenseSplitRepository,
+                settlementRepository, groupService, balanceLedgerService, debtSimplificationEngine,
+                balanceSnapshotCache, fxService, meterRegistry);
+        set(balanceService, "balanceMode", mode);
+
+        expenseService = new ExpenseService(expenseRepository, expenseSplitRepository, settlementRepository,
+                groupService, userService, balanceLedgerService,
+                new PairBalanceService(InMemoryRepositories.fake(PairBalanceRepository.class)
+                        .on("addToBalances", args -> roundTrip(1, ((Object[]) args[0]).length))
+                        .build(), userService,
+                        fxService),
+                outboxService, fxService, new SplitCalculator(), new ObjectMapper());
+    }
+
+    /**
+     * Forces the next balance read to recompute instead of hitting the snapshot cache.
+     */
+    void invalidate(SyntheticGroup data) {
+        groupVersion.incrementAndGet();
+    }
+
+    private <T> T roundTrip(int statements, T result) {
+        if (roundTripNanos > 0) {
+            long until = System.nanoTime() + statements * roundTripNanos;
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+        }
+        return result;
+    }
+
+    private static int batches(int rows) {
+        return (rows + JDBC_BATCH_SIZE - 1) / JDBC_BATCH_SIZE;
+    }
+
+    private static void set(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,94 @@
+package com.splitwise.clone.benchmark;
+
+import com.splitwise.clone.dto.CreateExpenseRequest;
+import com.splitwise.clone.dto.ExpenseItemRequest;
+import com.splitwise.clone.dto.ExpenseSplitRequest;
+import com.splitwise.clone.enums.SplitMode;
+import com.splitwise.clone.service.money.Money;
+import com.splitwise.clone.service.split.SplitCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Split calculation for one expense of 100,000.00 INR. Itemized expenses have one item
+ * per member shared with the next two members, and leave 10% of the amount for tax.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SplitCalculatorBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("100000.00");
+
+    @Param({ "5", "50", "500" })
+    public int members;
+
+    @Param({ "EQUAL", "EXACT", "PERCENTAGE", "SHARES", "ITEMIZED" })
+    public SplitMode mode;
+
+    private final SplitCalculator calculator = new SplitCalculator();
+    private CreateExpenseRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<UUID> userIds = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            userIds.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        request = new CreateExpenseRequest();
+        request.setAmount(AMOUNT);
+        request.setSplitMode(mode);
+        if (mode == SplitMode.ITEMIZED) {
+            request.setItems(items(userIds));
+            return;
+        }
+        long[] owed = Money.allocateEvenly(AMOUNT.movePointRight(2).longValueExact(),
+                members);
+        List<ExpenseSplitRequest> splits = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            ExpenseSplitRequest split = new ExpenseSplitRequest();
+            split.setUserId(userIds.get(i));
+            split.setOwedAmount(BigDecimal.valueOf(owed[i], 2));
+            split.setShares(BigDecimal.valueOf(1 + random.nextInt(5)));
+            splits.add(split);
+        }
+        // Every member count benchmarked divides 100 exactly
+        BigDecimal percentage = BigDecimal.valueOf(100).divide(BigDecimal.valueOf(members));
+        splits.forEach(split -> split.setPercentage(percentage));
+        request.setSplits(splits);
+    }
+
+    private List<ExpenseItemRequest> items(List<UUID> userIds) {
+        long itemsTotal = AMOUNT.movePointRight(2).longValueExact() * 9 / 10;
+        long[] amounts = Money.allocateEvenly(itemsTotal, members);
+        List<ExpenseItemRequest> items = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            ExpenseItemRequest item = new ExpenseItemRequest();
+            item.setDescription("Item " + i);
+            item.setAmount(BigDecimal.valueOf(amounts[i], 2));
+            int sharedBy = Math.min(3, members);
+            List<UUID> itemUsers = new ArrayList<>(sharedBy);
+            for (int j = 0; j < sharedBy; j++) {
+                itemUsers.add(userIds.get((i + j) % members));
+            }
+            item.setUserIds(itemUsers);
+            items.add(item);
+        }
+        return items;
+    }
+
+    @Benchmark
+    public SplitCalculator.Allocation calculate() {
+        return calculator.calculate(request, "INR");
+    }
+}
@@ -0,0 +1,110 @@
+package com.splitwise.clone.benchmark;
+
+import com.splitwise.clone.entity.Group;
+import com.splitwise.clone.enums.SettlementStatus;
+import com.splitwise.clone.repository.projection.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Deterministic group history, shaped like the projections the repositories return:
+ * every expense is paid by a random member and split between up to {@code MAX_SPLITS}
+ * members; one settlement is recorded per 20 expenses. Expenses rotate through the
+ * first {@code currencyCount} of {@link #CURRENCIES}, the first being the group's.
+ */
+final class SyntheticGroup {
+    static final int MAX_SPLITS = 5;
+    static final String[] CURRENCIES = { "INR", "USD", "EUR", "GBP" };
+
+    final Group group;
+    final List<MemberRow> members = new ArrayList<>();
+    final List<ExpenseRow> expenses = new ArrayList<>();
+    final List<ExpenseSplitRow> splits = new ArrayList<>();
+    final Map<UUID, List<ExpenseSplitRow>> splitsByExpense = new HashMap<>();
+    final List<UserAmount> paidAmounts = new ArrayList<>();
+    final List<UserAmount> owedAmounts = new ArrayList<>();
+    final List<SettlementRow> settlements = new ArrayList<>();
+    final List<TransferAmount> transfers = new ArrayList<>();
+    final List<UserAmount> ledger = new ArrayList<>();
+
+    SyntheticGroup(int memberCount, int expenseCount, long seed) {
+        this(memberCount, expenseCount, 1, seed);
+    }
+
+    SyntheticGroup(int memberCount, int expenseCount, int currencyCount, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        for (int i = 0; i < memberCount; i++) {
+            members.add(new MemberRow(uuid(random), "Member " + i, "member" + i + "@example.com"));
+        }
+        group = Group.builder()
+                .id(uuid(random))
+                .name("Synthetic")
+                .currency(CURRENCIES[0])
+                .inviteToken(UUID.randomUUID().toString())
+                .createdAt(start)
+                .build();
+
+        Map<String, Map<UUID, BigDecimal>> netByCurrency = new LinkedHashMap<>();
+        int[] picked = new int[MAX_SPLITS];
+        for (int e = 0; e < expenseCount; e++) {
+            String currency = CURRENCIES[e % currencyCount];
+            Map<UUID, BigDecimal> net = netByCurrency.computeIfAbsent(currency, code -> new HashMap<>());
+            MemberRow payer = members.get(random.nextInt(memberCount));
+            int splitCount = 1 + random.nextInt(Math.min(MAX_SPLITS, memberCount));
+            long perSplit = 100 + random.nextInt(10_000);
+            ExpenseRow expense = new ExpenseRow(uuid(random), "Expense " + e,
+                    BigDecimal.valueOf(perSplit * splitCount, 2), currency, payer.userId(), payer.name(),
+                    start.plusSeconds(e));
+            expenses.add(expense);
+            paidAmounts.add(new UserAmount(payer.userId(), currency, expense.amount()));
+            net.merge(payer.userId(), expense.amount(), BigDecimal::add);
+
+            List<ExpenseSplitRow> expenseSplits = new ArrayList<>(splitCount);
+            int chosen = 0;
+            while (chosen < splitCount) {
+                int candidate = random.nextInt(memberCount);
+                boolean duplicate = false;
+                for (int i = 0; i < chosen; i++) {
+                    duplicate |= picked[i] == candidate;
+                }
+                if (duplicate) {
+                    continue;
+                }
+                picked[chosen++] = candidate;
+                MemberRow member = members.get(candidate);
+                ExpenseSplitRow split = new ExpenseSplitRow(expense.id(), member.userId(), member.name(),
+                        BigDecimal.valueOf(perSplit, 2));
+                expenseSplits.add(split);
+                owedAmounts.add(new UserAmount(split.userId(), currency, split.owedAmount()));
+                net.merge(split.userId(), split.owedAmount().negate(), BigDecimal::add);
+            }
+            splits.addAll(expenseSplits);
+            splitsByExpense.put(expense.id(), expenseSplits);
+
+            if (e % 20 == 19 && memberCount > 1) {
+                MemberRow from = members.get(random.nextInt(memberCount));
+                MemberRow to = members.get(random.nextInt(memberCount));
+                if (from != to) {
+                    BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(5_000), 2);
+                    settlements.add(new SettlementRow(uuid(random), from.userId(), from.name(), to.userId(),
+                            to.name(), amount, currency, SettlementStatus.SETTLED, start.plusSeconds(e),
+                            start.plusSeconds(e)));
+                    transfers.add(new TransferAmount(from.userId(), to.userId(), currency, amount));
+                    net.merge(from.userId(), amount, BigDecimal::add);
+                    net.merge(to.userId(), amount.negate(), BigDecimal::add);
+                }
+            }
+        }
+
+        netByCurrency.forEach((currency, net) ->
+                net.forEach((userId, balance) -> ledger.add(new UserAmount(userId, currency, balance))));
+    }
+
+    private static UUID uuid(Random random) {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+}
@@ -0,0 +1,62 @@
+-- Friend lookup: group_members self-join vs. the materialized friendships table.
+-- Builds 1M memberships (200k users, 200k groups of 5) in a throwaway schema, so it
+-- is safe to run against a development database:
+--   psql -d splitwise -f backend/src/jmh/sql/friend-graph-benchmark.sql
+DROP SCHEMA IF EXISTS friend_bench CASCADE;
+CREATE SCHEMA friend_bench;
+SET search_path = friend_bench;
+
+CREATE TABLE users (id bigint PRIMARY KEY, name text NOT NULL, email text NOT NULL);
+CREATE TABLE group_members (group_id bigint NOT NULL, user_id bigint NOT NULL, UNIQUE (group_id, user_id));
+CREATE TABLE friendships (user_id bigint NOT NULL, friend_id bigint NOT NULL, shared_groups int NOT NULL,
+        UNIQUE (user_id, friend_id));
+
+INSERT INTO users SELECT i, 'User ' || i, 'user' || i || '@example.com' FROM generate_series(0, 199999) i;
+
+-- Member offsets of k^2 * 104729 are pairwise distinct, so every user ends up with
+-- five groups and twenty distinct friends
+INSERT INTO group_members
+SELECT g, (g * 7919 + k * k * 104729) % 200000 FROM generate_series(1, 200000) g, generate_series(0, 4) k;
+
+INSERT INTO friendships
+SELECT a.user_id, b.user_id, COUNT(*) FROM group_members a
+JOIN group_members b ON a.group_id = b.group_id AND a.user_id <> b.user_id
+GROUP BY a.user_id, b.user_id;
+
+ANALYZE users;
+ANALYZE group_members;
+ANALYZE friendships;
+
+SELECT (SELECT COUNT(*) FROM group_members) AS memberships, (SELECT COUNT(*) FROM friendships) AS edges;
+
+-- Previous UserRepository.findFriendsByUserId, without the group_members (user_id) index
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT u.id, u.name, u.email FROM users u
+JOIN group_members gm1 ON u.id = gm1.user_id
+JOIN group_members gm2 ON gm1.group_id = gm2.group_id
+WHERE gm2.user_id = 4242 AND u.id <> 4242;
+
+-- ...and with it (V3__access_path_indexes)
+CREATE INDEX ON group_members (user_id);
+ANALYZE group_members;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT u.id, u.name, u.email FROM users u
+JOIN group_members gm1 ON u.id = gm1.user_id
+JOIN group_members gm2 ON gm1.group_id = gm2.group_id
+WHERE gm2.user_id = 4242 AND u.id <> 4242;
+
+-- FriendshipRepository.findFriendsByUserId
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.id, u.name, u.email FROM friendships f JOIN users u ON u.id = f.friend_id
+WHERE f.user_id = 4242;
+
+-- FriendshipRepository.findSuggestions
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.id, u.name, u.email, COUNT(*) AS mutual_friends
+FROM friendships mine JOIN friendships theirs ON theirs.user_id = mine.friend_id
+JOIN users u ON u.id = theirs.friend_id
+WHERE mine.user_id = 4242 AND theirs.friend_id <> 4242
+AND NOT EXISTS (SELECT 1 FROM friendships f WHERE f.user_id = 4242 AND f.friend_id = theirs.friend_id)
+GROUP BY u.id, u.name, u.email ORDER BY mutual_friends DESC, u.id LIMIT 10;
+
+DROP SCHEMA friend_bench CASCADE;
@@ -0,0 +1,35 @@
+-- Insert cost and primary key size: random UUIDv4 vs time-ordered UUIDv7 keys.
+-- Loads 5M expense_splits-shaped rows into each variant in a throwaway schema:
+--   psql -d splitwise -f backend/src/jmh/sql/uuid-key-benchmark.sql
+-- The difference grows once the index no longer fits in shared_buffers.
+DROP SCHEMA IF EXISTS uuid_bench CASCADE;
+CREATE SCHEMA uuid_bench;
+SET search_path = uuid_bench;
+
+-- Same layout as TimeOrderedUuidGenerator, with random bits where it keeps a counter
+CREATE FUNCTION uuid_v7(ts timestamptz) RETURNS uuid AS $$
+    SELECT encode(set_bit(set_bit(overlay(uuid_send(gen_random_uuid())
+        PLACING substring(int8send((extract(epoch FROM ts) * 1000)::bigint) FROM 3) FROM 1 FOR 6),
+        52, 1), 53, 1), 'hex')::uuid
+$$ LANGUAGE sql VOLATILE;
+
+CREATE TABLE splits_v4 (id uuid PRIMARY KEY, expense_id uuid NOT NULL, user_id uuid NOT NULL,
+        owed_amount numeric(38,2) NOT NULL);
+CREATE TABLE splits_v7 (LIKE splits_v4 INCLUDING ALL);
+
+-- Both variants pay for gen_random_uuid(); v7 adds the timestamp overlay on top
+EXPLAIN (ANALYZE, BUFFERS, WAL)
+INSERT INTO splits_v4
+SELECT gen_random_uuid(), gen_random_uuid(), gen_random_uuid(), 10.00 FROM generate_series(1, 5000000);
+
+EXPLAIN (ANALYZE, BUFFERS, WAL)
+INSERT INTO splits_v7
+SELECT uuid_v7(timestamptz '2025-01-01' + i * interval '100 microseconds'), gen_random_uuid(), gen_random_uuid(), 10.00
+FROM generate_series(1, 5000000) i;
+
+SELECT 'v4' AS keys, pg_size_pretty(pg_relation_size('splits_v4_pkey')) AS pkey_size,
+        pg_size_pretty(pg_relation_size('splits_v4')) AS heap_size
+UNION ALL
+SELECT 'v7', pg_size_pretty(pg_relation_size('splits_v7_pkey')), pg_size_pretty(pg_relation_size('splits_v7'));
+
+DROP SCHEMA uuid_bench CASCADE;
@@ -0,0 +1,32 @@
+package com.splitwise.clone.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String GROUPS = "groups";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${splitwise.cache.entities.max-size:10000}") long maxSize,
+            @Value("${splitwise.cache.entities.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS, GROUPS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        // Puts and evictions issued inside a transaction only take effect once it commits
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
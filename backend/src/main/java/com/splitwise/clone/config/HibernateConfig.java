@@ -0,0 +1,28 @@
+package com.splitwise.clone.config;
+
+import com.splitwise.clone.entity.id.TimeOrderedUuidGenerator;
+import com.splitwise.clone.metrics.EntityLoadCountingInterceptor;
+import com.splitwise.clone.metrics.QueryCountingStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer timeOrderedIdCustomizer(
+            @Value("${splitwise.ids.time-ordered:true}") boolean timeOrdered) {
+        return properties -> properties.put(TimeOrderedUuidGenerator.TIME_ORDERED, timeOrdered);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCountingInterceptor());
+        };
+    }
+}
@@ -1,7 +1,9 @@
 package com.splitwise.clone.controller;
 
 import com.splitwise.clone.dto.BalanceSummaryResponse;
+import com.splitwise.clone.dto.UserBalanceResponse;
 import com.splitwise.clone.service.BalanceService;
+import com.splitwise.clone.service.PairBalanceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,6 +19,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class BalanceController {
     private final BalanceService balanceService;
+    private final PairBalanceService pairBalanceService;
 
     @GetMapping("/group/{groupId}")
     public ResponseEntity<List<BalanceSummaryResponse>> getGroupBalances(@PathVariable UUID groupId) {
@@ -27,4 +30,9 @@ public class BalanceController {
     public ResponseEntity<List<com.splitwise.clone.dto.DebtResponse>> getGroupDebts(@PathVariable UUID groupId) {
         return ResponseEntity.ok(balanceService.getGroupDebts(groupId));
     }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<UserBalanceResponse> getUserBalance(@PathVariable UUID userId) {
+        return ResponseEntity.ok(pairBalanceService.getUserBalance(userId));
+    }
 }
@@ -1,13 +1,22 @@
 package com.splitwise.clone.controller;
 
+import com.splitwise.clone.dto.BulkImportResponse;
 import com.splitwise.clone.dto.CreateExpenseRequest;
+import com.splitwise.clone.dto.PageResponse;
 import com.splitwise.clone.dto.ExpenseResponse;
+import com.splitwise.clone.enums.ImportFormat;
+import com.splitwise.clone.metrics.SqlBudgetOverride;
+import com.splitwise.clone.service.ExpenseImportService;
 import com.splitwise.clone.service.ExpenseService;
+import com.splitwise.clone.service.IdempotencyStore;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,10 +25,28 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ExpenseController {
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
-    public ResponseEntity<ExpenseResponse> addExpense(@Valid @RequestBody CreateExpenseRequest request) {
-        return ResponseEntity.ok(expenseService.addExpense(request));
+    public ResponseEntity<ExpenseResponse> addExpense(@Valid @RequestBody CreateExpenseRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyStore.execute(request.getCreatedBy(), "expenses", idempotencyKey,
+                request, () -> expenseService.addExpense(request)));
+    }
+
+    @SqlBudgetOverride(statements = Integer.MAX_VALUE, entityLoads = Integer.MAX_VALUE,
+            repeatedStatements = Integer.MAX_VALUE)
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<BulkImportResponse> importNdjson(InputStream body) {
+        return ResponseEntity.ok(expenseImportService.importExpenses(body, ImportFormat.NDJSON));
+    }
+
+    @SqlBudgetOverride(statements = Integer.MAX_VALUE, entityLoads = Integer.MAX_VALUE,
+            repeatedStatements = Integer.MAX_VALUE)
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResponse> importCsv(InputStream body) {
+        return ResponseEntity.ok(expenseImportService.importExpenses(body, ImportFormat.CSV));
     }
 
     @GetMapping("/group/{groupId}")
@@ -27,6 +54,21 @@ public class ExpenseController {
         return ResponseEntity.ok(expenseService.getGroupExpenses(groupId));
     }
 
+    @GetMapping("/group/{groupId}/page")
+    public ResponseEntity<PageResponse<ExpenseResponse>> getGroupExpensePage(@PathVariable UUID groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(expenseService.getGroupExpensePage(groupId, cursor, limit));
+    }
+
+    @GetMapping(value = "/group/{groupId}/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportGroupExpenses(@PathVariable UUID groupId) {
+        StreamingResponseBody body = out -> expenseService.exportGroupExpenses(groupId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteExpense(@PathVariable UUID id) {
         expenseService.deleteExpense(id);
@@ -1,12 +1,16 @@
 package com.splitwise.clone.controller;
 
 import com.splitwise.clone.dto.CreateSettlementRequest;
+import com.splitwise.clone.dto.PageResponse;
 import com.splitwise.clone.dto.SettlementResponse;
+import com.splitwise.clone.service.IdempotencyStore;
 import com.splitwise.clone.service.SettlementService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,14 +20,32 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class SettlementController {
     private final SettlementService settlementService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
-    public ResponseEntity<SettlementResponse> createSettlement(@Valid @RequestBody CreateSettlementRequest request) {
-        return ResponseEntity.ok(settlementService.createSettlement(request));
+    public ResponseEntity<SettlementResponse> createSettlement(@Valid @RequestBody CreateSettlementRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyStore.execute(request.getFromUser(), "settlements", idempotencyKey,
+                request, () -> settlementService.createSettlement(request)));
     }
 
     @GetMapping("/group/{groupId}")
     public ResponseEntity<List<SettlementResponse>> getGroupSettlements(@PathVariable UUID groupId) {
         return ResponseEntity.ok(settlementService.getGroupSettlements(groupId));
     }
+
+    @GetMapping("/group/{groupId}/page")
+    public ResponseEntity<PageResponse<SettlementResponse>> getGroupSettlementPage(@PathVariable UUID groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(settlementService.getGroupSettlementPage(groupId, cursor, limit));
+    }
+
+    @GetMapping(value = "/group/{groupId}/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportGroupSettlements(@PathVariable UUID groupId) {
+        StreamingResponseBody body = out -> settlementService.exportGroupSettlements(groupId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
 }
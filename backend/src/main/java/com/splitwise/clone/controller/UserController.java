@@ -1,6 +1,11 @@
 package com.splitwise.clone.controller;
 
+import com.splitwise.clone.dto.DashboardResponse;
+import com.splitwise.clone.dto.FriendSuggestionResponse;
+import com.splitwise.clone.dto.PageResponse;
 import com.splitwise.clone.dto.UserResponse;
+import com.splitwise.clone.service.DashboardService;
+import com.splitwise.clone.service.FriendshipService;
 import com.splitwise.clone.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,9 +19,29 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final DashboardService dashboardService;
+    private final FriendshipService friendshipService;
 
     @GetMapping("/{userId}/friends")
     public ResponseEntity<List<UserResponse>> getFriends(@PathVariable UUID userId) {
-        return ResponseEntity.ok(userService.getFriends(userId));
+        return ResponseEntity.ok(friendshipService.getFriends(userId));
+    }
+
+    @GetMapping("/{userId}/friends/page")
+    public ResponseEntity<PageResponse<UserResponse>> getFriendPage(@PathVariable UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(friendshipService.getFriendPage(userId, cursor, limit));
+    }
+
+    @GetMapping("/{userId}/friends/suggestions")
+    public ResponseEntity<List<FriendSuggestionResponse>> getFriendSuggestions(@PathVariable UUID userId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(friendshipService.getSuggestions(userId, limit));
+    }
+
+    @GetMapping("/{userId}/dashboard")
+    public ResponseEntity<DashboardResponse> getDashboard(@PathVariable UUID userId) {
+        return ResponseEntity.ok(dashboardService.getDashboard(userId));
     }
 }
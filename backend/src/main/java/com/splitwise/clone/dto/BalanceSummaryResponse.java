@@ -13,6 +13,7 @@ public class BalanceSummaryResponse {
     private UUID userId;
     private String userName;
     private BigDecimal netBalance; // Positive means they are owed, negative means they owe
+    private String currency; // The group currency; other currencies are converted at today's rates
     private Map<UUID, BigDecimal> owesTo; // Who this user owes and how much
     private Map<UUID, BigDecimal> owedBy; // Who owes this user and how much
 }
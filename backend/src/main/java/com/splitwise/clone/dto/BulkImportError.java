@@ -0,0 +1,15 @@
+package com.splitwise.clone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportError {
+    private long line; // 1-based line (NDJSON) or record (CSV, header excluded) number
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.splitwise.clone.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkImportResponse {
+    private int imported;
+    private int failed;
+    private List<BulkImportError> errors;
+}
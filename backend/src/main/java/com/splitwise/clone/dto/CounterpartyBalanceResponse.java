@@ -0,0 +1,15 @@
+package com.splitwise.clone.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+public class CounterpartyBalanceResponse {
+    private UUID userId;
+    private String userName;
+    private BigDecimal amount; // Positive means this user owes the requester, negative means the requester owes them
+}
@@ -1,7 +1,7 @@
 package com.splitwise.clone.dto;
 
+import com.splitwise.clone.enums.SplitMode;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
@@ -22,12 +22,17 @@ public class CreateExpenseRequest {
     @Positive(message = "Amount must be positive")
     private BigDecimal amount;
 
+    private String currency; // ISO 4217; defaults to the group currency
+
     @NotNull(message = "Paid by user ID is required")
     private UUID paidBy;
 
     @NotNull(message = "Created by user ID is required")
     private UUID createdBy;
 
-    @NotEmpty(message = "At least one split is required")
+    private SplitMode splitMode = SplitMode.EXACT;
+
     private List<ExpenseSplitRequest> splits;
+
+    private List<ExpenseItemRequest> items; // ITEMIZED
 }
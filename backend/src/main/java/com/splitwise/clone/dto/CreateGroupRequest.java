@@ -11,6 +11,8 @@ public class CreateGroupRequest {
     @NotBlank(message = "Group name is required")
     private String name;
 
+    private String currency; // ISO 4217; balances are reported in it. Defaults to splitwise.money.currency
+
     private List<UUID> initialMembers;
 
     private UUID createdBy;
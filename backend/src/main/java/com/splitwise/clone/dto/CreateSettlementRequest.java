@@ -21,4 +21,6 @@ public class CreateSettlementRequest {
     @NotNull(message = "Amount is required")
     @Positive(message = "Amount must be positive")
     private BigDecimal amount;
+
+    private String currency; // ISO 4217; defaults to the group currency
 }
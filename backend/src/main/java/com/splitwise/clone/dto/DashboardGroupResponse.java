@@ -0,0 +1,15 @@
+package com.splitwise.clone.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class DashboardGroupResponse {
+    private GroupResponse group;
+    private BigDecimal netBalance; // Positive means the user is owed, negative means they owe
+    private List<DebtResponse> topDebts; // Largest simplified debts the user is part of
+}
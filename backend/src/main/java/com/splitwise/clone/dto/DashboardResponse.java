@@ -0,0 +1,19 @@
+package com.splitwise.clone.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class DashboardResponse {
+    private UUID userId;
+    private BigDecimal totalNetBalance; // Sum over the groups in this response
+    private String currency; // Of the total; each group's own balance stays in the group currency
+    private List<DashboardGroupResponse> groups;
+    private boolean complete; // False when some groups missed the deadline
+    private List<UUID> pendingGroupIds; // Groups left out; fetch them from /api/balances/group/{groupId}
+}
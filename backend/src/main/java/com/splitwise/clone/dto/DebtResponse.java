@@ -18,4 +18,5 @@ public class DebtResponse {
     private UUID toUserId;
     private String toUserName;
     private BigDecimal amount;
+    private String currency; // The group currency
 }
@@ -0,0 +1,16 @@
+package com.splitwise.clone.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class ExpenseItemRequest {
+    private String description;
+
+    private BigDecimal amount;
+
+    private List<UUID> userIds;
+}
@@ -14,6 +14,7 @@ public class ExpenseResponse {
     private UUID id;
     private String description;
     private BigDecimal amount;
+    private String currency;
     private UUID paidBy;
     private String paidByName;
     private LocalDateTime createdAt;
@@ -12,7 +12,12 @@ public class ExpenseSplitRequest {
     @NotNull(message = "User ID is required")
     private UUID userId;
 
-    @NotNull(message = "Owed amount is required")
     @PositiveOrZero(message = "Owed amount cannot be negative")
-    private BigDecimal owedAmount;
+    private BigDecimal owedAmount; // EXACT
+
+    @PositiveOrZero(message = "Percentage cannot be negative")
+    private BigDecimal percentage; // PERCENTAGE
+
+    @PositiveOrZero(message = "Shares cannot be negative")
+    private BigDecimal shares; // SHARES
 }
@@ -0,0 +1,15 @@
+package com.splitwise.clone.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class FriendSuggestionResponse {
+    private UUID id;
+    private String name;
+    private String email;
+    private long mutualFriends;
+}
@@ -11,6 +11,7 @@ import java.util.UUID;
 public class GroupResponse {
     private UUID id;
     private String name;
+    private String currency;
     private String inviteToken;
     private UUID createdBy;
     private LocalDateTime createdAt;
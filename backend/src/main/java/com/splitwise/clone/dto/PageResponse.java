@@ -0,0 +1,13 @@
+package com.splitwise.clone.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PageResponse<T> {
+    private List<T> items;
+    private String nextCursor; // Pass back as ?cursor= for the next page; null on the last page
+}
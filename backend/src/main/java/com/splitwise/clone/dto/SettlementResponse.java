@@ -17,6 +17,7 @@ public class SettlementResponse {
     private UUID toUser;
     private String toUserName;
     private BigDecimal amount;
+    private String currency;
     private SettlementStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime settledAt;
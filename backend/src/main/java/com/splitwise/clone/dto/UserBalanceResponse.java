@@ -0,0 +1,17 @@
+package com.splitwise.clone.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class UserBalanceResponse {
+    private UUID userId;
+    private BigDecimal netBalance; // Positive means they are owed overall, negative means they owe
+    private String currency; // splitwise.money.currency; every amount here is converted into it
+    private List<CounterpartyBalanceResponse> counterparties;
+}
@@ -1,5 +1,6 @@
 package com.splitwise.clone.entity;
 
+import com.splitwise.clone.entity.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -18,10 +19,10 @@ import java.util.UUID;
 @Builder
 public class Expense {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id", nullable = false)
     private Group group;
 
@@ -31,11 +32,14 @@ public class Expense {
     @Column(nullable = false)
     private BigDecimal amount;
 
-    @ManyToOne
+    @Column(nullable = false, length = 3)
+    private String currency; // ISO 4217
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paid_by", nullable = false)
     private User paidBy;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
 
@@ -47,4 +51,7 @@ public class Expense {
 
     @Builder.Default
     private Boolean isDeleted = false;
+
+    @Version
+    private Long version;
 }
@@ -1,5 +1,6 @@
 package com.splitwise.clone.entity;
 
+import com.splitwise.clone.entity.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -15,14 +16,14 @@ import java.util.UUID;
 @Builder
 public class ExpenseSplit {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "expense_id", nullable = false)
     private Expense expense;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
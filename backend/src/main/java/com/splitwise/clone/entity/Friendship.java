@@ -0,0 +1,41 @@
+package com.splitwise.clone.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Directed friend edge: {@code friend} shares at least one group with {@code user}.
+ * Both directions are stored so a user's friends are one index range.
+ */
+@Entity
+@Table(name = "friendships", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "user_id", "friend_id" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Friendship {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "friend_id", nullable = false)
+    private User friend;
+
+    @Column(nullable = false)
+    private Integer sharedGroups;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -23,10 +23,13 @@ public class Group {
     @Column(nullable = false)
     private String name;
 
+    @Column(nullable = false, length = 3)
+    private String currency; // ISO 4217
+
     @Column(unique = true)
     private String inviteToken;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
 
@@ -35,4 +38,7 @@ public class Group {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    @Version
+    private Long version; // Also bumped by GroupService.lockForWrite
 }
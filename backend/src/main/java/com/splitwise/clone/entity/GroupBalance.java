@@ -0,0 +1,46 @@
+package com.splitwise.clone.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running net balance of one member inside one group, in one currency. Kept in step
+ * with expense and settlement writes so balance reads do not have to replay the group
+ * history.
+ */
+@Entity
+@Table(name = "group_balances", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "group_id", "user_id", "currency" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupBalance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false)
+    private BigDecimal netBalance; // Positive means they are owed, negative means they owe
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
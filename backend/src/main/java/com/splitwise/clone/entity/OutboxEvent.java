@@ -0,0 +1,55 @@
+package com.splitwise.clone.entity;
+
+import com.splitwise.clone.entity.id.TimeOrderedUuid;
+import com.splitwise.clone.enums.DomainEventType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A domain event written in the same transaction as the change it describes and
+ * delivered to subscribers afterwards by the outbox dispatcher.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DomainEventType type;
+
+    @Column(nullable = false)
+    private UUID groupId;
+
+    @Column(nullable = false)
+    private UUID aggregateId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload; // JSON
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime availableAt; // Not delivered before this; pushed back after a failed attempt
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    private LocalDateTime processedAt; // Set once delivered, or given up on after too many attempts
+
+    @Column(length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,46 @@
+package com.splitwise.clone.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What {@code counterparty} owes {@code user} in one currency across all shared
+ * groups. Every pair is stored in both directions with opposite signs, so one user's
+ * position is a single index range.
+ */
+@Entity
+@Table(name = "pair_balances", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "user_id", "counterparty_id", "currency" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PairBalance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "counterparty_id", nullable = false)
+    private User counterparty;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false)
+    private BigDecimal netAmount; // Positive means the counterparty owes the user
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -1,6 +1,7 @@
 package com.splitwise.clone.entity;
 
 import com.splitwise.clone.enums.SettlementStatus;
+import com.splitwise.clone.entity.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -18,24 +19,27 @@ import java.util.UUID;
 @Builder
 public class Settlement {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id", nullable = false)
     private Group group;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_user", nullable = false)
     private User fromUser;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "to_user", nullable = false)
     private User toUser;
 
     @Column(nullable = false)
     private BigDecimal amount;
 
+    @Column(nullable = false, length = 3)
+    private String currency; // ISO 4217
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private SettlementStatus status;
@@ -44,4 +48,7 @@ public class Settlement {
     private LocalDateTime createdAt;
 
     private LocalDateTime settledAt;
+
+    @Version
+    private Long version;
 }
@@ -0,0 +1,19 @@
+package com.splitwise.clone.entity.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates UUIDv7 identifiers, which sort by creation time, so inserts append to the
+ * right edge of the primary key index instead of landing on random pages. Falls back to
+ * random v4 ids when {@code splitwise.ids.time-ordered} is false.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface TimeOrderedUuid {
+}
@@ -0,0 +1,54 @@
+package com.splitwise.clone.entity.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator, AnnotationBasedGenerator<TimeOrderedUuid> {
+    public static final String TIME_ORDERED = "splitwise.ids.time-ordered";
+
+    // 48-bit Unix millis followed by a 12-bit counter, so ids from one JVM never go backwards
+    private static final AtomicLong LAST_TICK = new AtomicLong();
+
+    private boolean timeOrdered = true;
+
+    @Override
+    public void initialize(TimeOrderedUuid annotation, Member member, GeneratorCreationContext context) {
+        this.timeOrdered = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(TIME_ORDERED, StandardConverters.BOOLEAN, true);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return timeOrdered ? next() : UUID.randomUUID();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * RFC 9562 version 7 layout with rand_a used as a counter (method 1). A counter that
+     * overflows within a millisecond borrows from the next one rather than repeating.
+     */
+    static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long tick = LAST_TICK.updateAndGet(last -> Math.max(last + 1, now));
+        long mostSigBits = (tick >>> 12) << 16 | 0x7000L | (tick & 0xFFFL);
+        long leastSigBits = ThreadLocalRandom.current().nextLong() >>> 2 | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
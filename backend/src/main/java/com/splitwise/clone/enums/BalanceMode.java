@@ -0,0 +1,7 @@
+package com.splitwise.clone.enums;
+
+public enum BalanceMode {
+    LEDGER, // Read the running balances kept in group_balances
+    IN_MEMORY, // Replay expenses, splits and settlements in the JVM
+    SQL_AGGREGATE // Let the database sum the history in one aggregate query
+}
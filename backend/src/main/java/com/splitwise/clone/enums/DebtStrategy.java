@@ -0,0 +1,8 @@
+package com.splitwise.clone.enums;
+
+public enum DebtStrategy {
+    AUTO, // Exact for small groups, pair matching otherwise
+    GREEDY,
+    EXACT, // Exact whenever the optimizer accepts the input size
+    PAIR_MATCHING
+}
@@ -0,0 +1,8 @@
+package com.splitwise.clone.enums;
+
+public enum DomainEventType {
+    EXPENSE_ADDED,
+    EXPENSE_DELETED,
+    SETTLEMENT_CREATED,
+    MEMBER_JOINED
+}
@@ -0,0 +1,6 @@
+package com.splitwise.clone.enums;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV
+}
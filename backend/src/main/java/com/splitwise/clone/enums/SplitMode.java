@@ -0,0 +1,9 @@
+package com.splitwise.clone.enums;
+
+public enum SplitMode {
+    EQUAL,
+    EXACT, // Each split carries its owed amount
+    PERCENTAGE,
+    SHARES,
+    ITEMIZED // Receipt lines, each split equally between its users
+}
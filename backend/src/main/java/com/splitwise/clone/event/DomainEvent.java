@@ -0,0 +1,15 @@
+package com.splitwise.clone.event;
+
+import com.splitwise.clone.enums.DomainEventType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An outbox event as handed to subscribers. {@code payload} is the JSON form of
+ * {@link ExpensePayload}, {@link SettlementPayload} or {@link MemberJoinedPayload},
+ * depending on {@code type}.
+ */
+public record DomainEvent(UUID id, DomainEventType type, UUID groupId, UUID aggregateId, String payload,
+        LocalDateTime createdAt, int attempt) {
+}
@@ -0,0 +1,27 @@
+package com.splitwise.clone.event;
+
+import com.splitwise.clone.enums.DomainEventType;
+
+import java.util.List;
+
+/**
+ * In-process consumer of outbox events. Every {@code DomainEventSubscriber} bean is picked
+ * up by the dispatcher.
+ * <p>
+ * Delivery is at-least-once: a batch is redelivered when any subscriber fails on it or
+ * the dispatching transaction does not commit, so handlers must be idempotent (the event
+ * id is stable across redeliveries). Events arrive roughly in commit order, but a retried
+ * event can arrive after later ones.
+ * <p>
+ * Subscribers are called inside the dispatcher's transaction. One that writes should do
+ * so in its own transaction ({@code REQUIRES_NEW}), or a failure of its own would also
+ * roll back the dispatcher's bookkeeping for the whole batch.
+ */
+public interface DomainEventSubscriber {
+
+    void onEvents(List<DomainEvent> events);
+
+    default boolean accepts(DomainEventType type) {
+        return true;
+    }
+}
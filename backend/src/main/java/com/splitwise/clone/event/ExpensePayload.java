@@ -0,0 +1,12 @@
+package com.splitwise.clone.event;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record ExpensePayload(UUID expenseId, UUID groupId, String description, BigDecimal amount,
+        String currency, UUID paidBy, List<Split> splits) {
+
+    public record Split(UUID userId, BigDecimal owedAmount) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.splitwise.clone.event;
+
+import java.util.UUID;
+
+public record MemberJoinedPayload(UUID groupId, UUID userId) {
+}
@@ -0,0 +1,8 @@
+package com.splitwise.clone.event;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record SettlementPayload(UUID settlementId, UUID groupId, UUID fromUser, UUID toUser, BigDecimal amount,
+        String currency) {
+}
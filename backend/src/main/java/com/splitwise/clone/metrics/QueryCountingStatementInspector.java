@@ -0,0 +1,12 @@
+package com.splitwise.clone.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats.statementPrepared(sql);
+        return sql;
+    }
+}
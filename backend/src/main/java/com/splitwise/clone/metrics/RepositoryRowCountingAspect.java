@@ -0,0 +1,61 @@
+package com.splitwise.clone.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Counts the rows repository queries return into {@link RequestQueryStats}. Unlike
+ * entity loads this sees record projections and scalar results too, which is what
+ * most read paths return. Streams are counted as they are consumed; saves, deletes and
+ * {@link Modifying} queries are not counted.
+ */
+@Aspect
+@Component
+public class RepositoryRowCountingAspect {
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object countRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (!RequestQueryStats.active() || isWrite(((MethodSignature) joinPoint.getSignature()).getMethod())) {
+            return result;
+        }
+        if (result instanceof Stream<?> stream) {
+            return stream.peek(row -> RequestQueryStats.rowsReturned(1));
+        }
+        RequestQueryStats.rowsReturned(rows(result));
+        return result;
+    }
+
+    private static boolean isWrite(Method method) {
+        String name = method.getName();
+        return name.startsWith("save") || name.startsWith("delete") || name.equals("flush")
+                || method.isAnnotationPresent(Modifying.class);
+    }
+
+    private static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        // An entity, a projection or a scalar such as a count
+        return 1;
+    }
+}
@@ -0,0 +1,104 @@
+package com.splitwise.clone.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Records how many SQL statements, result rows and entity loads each controller call
+ * caused and checks them against the {@link SqlBudget}. Work done inside a
+ * {@code StreamingResponseBody} runs on the async executor and is not included.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+    private static final String STATS_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".stats";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${splitwise.sql-budget.max-statements:30}")
+    private int maxStatements;
+
+    @Value("${splitwise.sql-budget.max-entity-loads:10000}")
+    private int maxEntityLoads;
+
+    @Value("${splitwise.sql-budget.max-repeated-statements:25}")
+    private int maxRepeatedStatements;
+
+    @Value("${splitwise.sql-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        if (request.getAttribute(STATS_ATTRIBUTE) instanceof RequestQueryStats stats) {
+            // Async dispatch of a request that started on another thread
+            RequestQueryStats.attach(stats);
+        } else {
+            SqlBudget budget = new SqlBudget(maxStatements, maxEntityLoads, maxRepeatedStatements, failOnExceed)
+                    .override(handlerMethod.getMethodAnnotation(SqlBudgetOverride.class));
+            request.setAttribute(STATS_ATTRIBUTE, RequestQueryStats.begin(budget));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        if (request.getAttribute(STATS_ATTRIBUTE) instanceof RequestQueryStats stats) {
+            RequestQueryStats.detach(stats);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (!(request.getAttribute(STATS_ATTRIBUTE) instanceof RequestQueryStats stats)
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        RequestQueryStats.detach(stats);
+        request.removeAttribute(STATS_ATTRIBUTE);
+
+        String endpoint = endpoint(handlerMethod);
+        boolean exceeded = stats.exceeded();
+        if (exceeded) {
+            log.warn("{} {} ({}) exceeded its SQL budget: {}", request.getMethod(), request.getRequestURI(),
+                    endpoint, stats.describe());
+            meterRegistry.counter("splitwise.request.sql.budget.exceeded", "endpoint", endpoint).increment();
+        }
+        String budgetTag = exceeded ? "exceeded" : "within";
+        DistributionSummary.builder("splitwise.request.sql.statements")
+                .description("SQL statements prepared while handling one request")
+                .tag("endpoint", endpoint)
+                .tag("budget", budgetTag)
+                .register(meterRegistry)
+                .record(stats.statements());
+        DistributionSummary.builder("splitwise.request.rows")
+                .description("Rows returned by repository queries while handling one request, projections included")
+                .tag("endpoint", endpoint)
+                .tag("budget", budgetTag)
+                .register(meterRegistry)
+                .record(stats.rows());
+        DistributionSummary.builder("splitwise.request.entity.loads")
+                .description("Entities hydrated while handling one request; projection reads hydrate none")
+                .tag("endpoint", endpoint)
+                .tag("budget", budgetTag)
+                .register(meterRegistry)
+                .record(stats.entityLoads());
+    }
+
+    static String endpoint(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+}
@@ -0,0 +1,108 @@
+package com.splitwise.clone.metrics;
+
+import com.splitwise.clone.exception.SqlBudgetExceededException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements, result rows and entity loads issued by the current thread on behalf of
+ * one HTTP request. Counting only happens while a stats object is attached to the thread, so
+ * scheduled jobs and executor threads are never attributed to a request.
+ */
+public final class RequestQueryStats {
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final SqlBudget budget;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private int statements;
+    private int rows;
+    private int entityLoads;
+    private String mostRepeatedSql;
+    private int mostRepeatedCount;
+
+    private RequestQueryStats(SqlBudget budget) {
+        this.budget = budget;
+    }
+
+    public static RequestQueryStats begin(SqlBudget budget) {
+        RequestQueryStats stats = new RequestQueryStats(budget);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void attach(RequestQueryStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static void detach(RequestQueryStats stats) {
+        if (CURRENT.get() == stats) {
+            CURRENT.remove();
+        }
+    }
+
+    static void statementPrepared(String sql) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return;
+        }
+        stats.statements++;
+        int executions = stats.executionsBySql.merge(sql, 1, Integer::sum);
+        if (executions > stats.mostRepeatedCount) {
+            stats.mostRepeatedCount = executions;
+            stats.mostRepeatedSql = sql;
+        }
+        stats.enforce();
+    }
+
+    static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    static void rowsReturned(int count) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.rows += count;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entityLoads++;
+            stats.enforce();
+        }
+    }
+
+    private void enforce() {
+        if (budget.failOnExceed() && exceeded()) {
+            // Detach first so the error handling that follows is not failed as well
+            CURRENT.remove();
+            throw new SqlBudgetExceededException("SQL budget exceeded: " + describe());
+        }
+    }
+
+    public boolean exceeded() {
+        return statements > budget.maxStatements()
+                || entityLoads > budget.maxEntityLoads()
+                || mostRepeatedCount > budget.maxRepeatedStatements();
+    }
+
+    public String describe() {
+        return statements + "/" + budget.maxStatements() + " statements, "
+                + entityLoads + "/" + budget.maxEntityLoads() + " entity loads, "
+                + mostRepeatedCount + "/" + budget.maxRepeatedStatements() + " runs of [" + mostRepeatedSql + "]";
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int entityLoads() {
+        return entityLoads;
+    }
+}
@@ -0,0 +1,19 @@
+package com.splitwise.clone.metrics;
+
+/**
+ * Limits on the database work one request may cause. {@code maxRepeatedStatements}
+ * caps how often the same SQL text may run, which is how an N+1 shows up.
+ */
+public record SqlBudget(int maxStatements, int maxEntityLoads, int maxRepeatedStatements, boolean failOnExceed) {
+
+    public SqlBudget override(SqlBudgetOverride override) {
+        if (override == null) {
+            return this;
+        }
+        return new SqlBudget(
+                override.statements() < 0 ? maxStatements : override.statements(),
+                override.entityLoads() < 0 ? maxEntityLoads : override.entityLoads(),
+                override.repeatedStatements() < 0 ? maxRepeatedStatements : override.repeatedStatements(),
+                failOnExceed);
+    }
+}
@@ -0,0 +1,20 @@
+package com.splitwise.clone.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Replaces the configured {@link SqlBudget} limits for one controller method. Negative
+ * values keep the configured limit.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudgetOverride {
+    int statements() default -1;
+
+    int entityLoads() default -1;
+
+    int repeatedStatements() default -1;
+}
@@ -2,13 +2,73 @@ package com.splitwise.clone.repository;
 
 import com.splitwise.clone.entity.Expense;
 import com.splitwise.clone.entity.Group;
+import com.splitwise.clone.repository.projection.ExpenseRow;
+import com.splitwise.clone.repository.projection.UserAmount;
+import com.splitwise.clone.repository.projection.UserNetBalance;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, UUID> {
     List<Expense> findByGroupAndIsDeletedFalse(Group group);
+
+    @Query("SELECT e.group.id FROM Expense e WHERE e.id = :id")
+    Optional<UUID> findGroupIdById(@Param("id") UUID id);
+
+    // Only the columns the DTOs need; payer name comes from a join, creator and group are never loaded
+    @Query("SELECT new com.splitwise.clone.repository.projection.ExpenseRow(" +
+            "e.id, e.description, e.amount, e.currency, p.id, p.name, e.createdAt) FROM Expense e JOIN e.paidBy p " +
+            "WHERE e.group.id = :groupId AND e.isDeleted = false ORDER BY e.createdAt, e.id")
+    List<ExpenseRow> findActiveRowsByGroupId(@Param("groupId") UUID groupId);
+
+    // Keyset pagination on (createdAt, id); the first page has no cursor
+    @Query("SELECT new com.splitwise.clone.repository.projection.ExpenseRow(" +
+            "e.id, e.description, e.amount, e.currency, p.id, p.name, e.createdAt) FROM Expense e JOIN e.paidBy p " +
+            "WHERE e.group.id = :groupId AND e.isDeleted = false ORDER BY e.createdAt, e.id")
+    List<ExpenseRow> findFirstPageByGroupId(@Param("groupId") UUID groupId, Pageable pageable);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.ExpenseRow(" +
+            "e.id, e.description, e.amount, e.currency, p.id, p.name, e.createdAt) FROM Expense e JOIN e.paidBy p " +
+            "WHERE e.group.id = :groupId AND e.isDeleted = false " +
+            "AND (e.createdAt > :createdAt OR (e.createdAt = :createdAt AND e.id > :id)) " +
+            "ORDER BY e.createdAt, e.id")
+    List<ExpenseRow> findPageByGroupIdAfter(@Param("groupId") UUID groupId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    // Server-side cursor for exports; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.splitwise.clone.repository.projection.ExpenseRow(" +
+            "e.id, e.description, e.amount, e.currency, p.id, p.name, e.createdAt) FROM Expense e JOIN e.paidBy p " +
+            "WHERE e.group.id = :groupId AND e.isDeleted = false ORDER BY e.createdAt, e.id")
+    Stream<ExpenseRow> streamActiveRowsByGroupId(@Param("groupId") UUID groupId);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.UserAmount(e.paidBy.id, e.currency, e.amount) " +
+            "FROM Expense e WHERE e.group.id = :groupId AND e.isDeleted = false")
+    List<UserAmount> findPaidAmountsByGroupId(@Param("groupId") UUID groupId);
+
+    @Query(value = "SELECT t.user_id AS userId, t.currency AS currency, SUM(t.delta) AS netBalance FROM (" +
+            "SELECT e.paid_by AS user_id, e.currency, e.amount AS delta FROM expenses e " +
+            "WHERE e.group_id = :groupId AND e.is_deleted = false " +
+            "UNION ALL " +
+            "SELECT s.user_id, e.currency, -s.owed_amount " +
+            "FROM expense_splits s JOIN expenses e ON e.id = s.expense_id " +
+            "WHERE e.group_id = :groupId AND e.is_deleted = false " +
+            "UNION ALL " +
+            "SELECT st.from_user, st.currency, st.amount FROM settlements st WHERE st.group_id = :groupId " +
+            "UNION ALL " +
+            "SELECT st.to_user, st.currency, -st.amount FROM settlements st WHERE st.group_id = :groupId" +
+            ") t GROUP BY t.user_id, t.currency", nativeQuery = true)
+    List<UserNetBalance> sumNetBalancesByGroupId(@Param("groupId") UUID groupId);
 }
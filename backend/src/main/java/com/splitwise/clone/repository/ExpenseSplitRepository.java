@@ -2,10 +2,16 @@ package com.splitwise.clone.repository;
 
 import com.splitwise.clone.entity.Expense;
 import com.splitwise.clone.entity.ExpenseSplit;
+import com.splitwise.clone.entity.Group;
 import com.splitwise.clone.entity.User;
+import com.splitwise.clone.repository.projection.ExpenseSplitRow;
+import com.splitwise.clone.repository.projection.UserAmount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,4 +20,18 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, UUID
     List<ExpenseSplit> findByExpense(Expense expense);
 
     List<ExpenseSplit> findByUser(User user);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.ExpenseSplitRow(" +
+            "s.expense.id, u.id, u.name, s.owedAmount) FROM ExpenseSplit s JOIN s.user u JOIN s.expense e " +
+            "WHERE e.group.id = :groupId AND e.isDeleted = false")
+    List<ExpenseSplitRow> findActiveRowsByGroupId(@Param("groupId") UUID groupId);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.ExpenseSplitRow(" +
+            "s.expense.id, u.id, u.name, s.owedAmount) FROM ExpenseSplit s JOIN s.user u " +
+            "WHERE s.expense.id IN :expenseIds")
+    List<ExpenseSplitRow> findRowsByExpenseIds(@Param("expenseIds") Collection<UUID> expenseIds);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.UserAmount(s.user.id, e.currency, s.owedAmount) " +
+            "FROM ExpenseSplit s JOIN s.expense e WHERE e.group.id = :groupId AND e.isDeleted = false")
+    List<UserAmount> findOwedAmountsByGroupId(@Param("groupId") UUID groupId);
 }
@@ -0,0 +1,50 @@
+package com.splitwise.clone.repository;
+
+import com.splitwise.clone.entity.Friendship;
+import com.splitwise.clone.repository.projection.FriendSuggestion;
+import com.splitwise.clone.repository.projection.UserSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface FriendshipRepository extends JpaRepository<Friendship, UUID> {
+
+    // Adds one shared group to every edge; the arrays are parallel and must not repeat an edge
+    @Modifying
+    @Query(value = "INSERT INTO friendships (id, user_id, friend_id, shared_groups, created_at) " +
+            "SELECT gen_random_uuid(), t.user_id, t.friend_id, 1, now() " +
+            "FROM unnest(:userIds, :friendIds) AS t(user_id, friend_id) " +
+            "ON CONFLICT (user_id, friend_id) DO UPDATE " +
+            "SET shared_groups = friendships.shared_groups + 1", nativeQuery = true)
+    int addSharedGroup(@Param("userIds") UUID[] userIds, @Param("friendIds") UUID[] friendIds);
+
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email FROM Friendship f JOIN f.friend u " +
+            "WHERE f.user.id = :userId")
+    List<UserSummary> findFriendsByUserId(@Param("userId") UUID userId);
+
+    // Keyset pagination on the friend id; the first page has no cursor
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email FROM Friendship f JOIN f.friend u " +
+            "WHERE f.user.id = :userId ORDER BY u.id")
+    List<UserSummary> findFirstFriendPage(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email FROM Friendship f JOIN f.friend u " +
+            "WHERE f.user.id = :userId AND u.id > :after ORDER BY u.id")
+    List<UserSummary> findFriendPageAfter(@Param("userId") UUID userId, @Param("after") UUID after,
+            Pageable pageable);
+
+    // Friends of friends that are not yet friends, ranked by how many friends they share
+    @Query(value = "SELECT u.id AS id, u.name AS name, u.email AS email, COUNT(*) AS mutualFriends " +
+            "FROM friendships mine JOIN friendships theirs ON theirs.user_id = mine.friend_id " +
+            "JOIN users u ON u.id = theirs.friend_id " +
+            "WHERE mine.user_id = :userId AND theirs.friend_id <> :userId " +
+            "AND NOT EXISTS (SELECT 1 FROM friendships f WHERE f.user_id = :userId AND f.friend_id = theirs.friend_id) " +
+            "GROUP BY u.id, u.name, u.email ORDER BY mutualFriends DESC, u.id LIMIT :limit", nativeQuery = true)
+    List<FriendSuggestion> findSuggestions(@Param("userId") UUID userId, @Param("limit") int limit);
+}
@@ -0,0 +1,36 @@
+package com.splitwise.clone.repository;
+
+import com.splitwise.clone.entity.Group;
+import com.splitwise.clone.entity.GroupBalance;
+import com.splitwise.clone.repository.projection.UserAmount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface GroupBalanceRepository extends JpaRepository<GroupBalance, UUID> {
+    @Query("SELECT new com.splitwise.clone.repository.projection.UserAmount(b.user.id, b.currency, b.netBalance) " +
+            "FROM GroupBalance b WHERE b.group.id = :groupId")
+    List<UserAmount> findAmountsByGroupId(@Param("groupId") UUID groupId);
+
+    // Single-statement upsert for all touched members, so concurrent writers never race on creating a row;
+    // the arrays are parallel and must not repeat a member
+    @Modifying
+    @Query(value = "INSERT INTO group_balances (id, group_id, user_id, currency, net_balance, updated_at) " +
+            "SELECT gen_random_uuid(), :groupId, t.user_id, :currency, t.delta, now() " +
+            "FROM unnest(:userIds, :deltas) AS t(user_id, delta) " +
+            "ON CONFLICT (group_id, user_id, currency) DO UPDATE " +
+            "SET net_balance = group_balances.net_balance + EXCLUDED.net_balance, updated_at = now()", nativeQuery = true)
+    int addToBalances(@Param("groupId") UUID groupId, @Param("currency") String currency,
+            @Param("userIds") UUID[] userIds, @Param("deltas") BigDecimal[] deltas);
+
+    @Modifying
+    @Query("DELETE FROM GroupBalance b WHERE b.group = :group")
+    int deleteByGroup(@Param("group") Group group);
+}
@@ -3,9 +3,14 @@ package com.splitwise.clone.repository;
 import com.splitwise.clone.entity.Group;
 import com.splitwise.clone.entity.GroupMember;
 import com.splitwise.clone.entity.User;
+import com.splitwise.clone.repository.projection.GroupRow;
+import com.splitwise.clone.repository.projection.MemberRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,4 +26,16 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, UUID>
     boolean existsByGroupAndUser(Group group, User user);
 
     List<GroupMember> findByGroupId(UUID groupId);
+
+    @Query("SELECT m.user.id FROM GroupMember m WHERE m.group.id = :groupId AND m.user.id IN :userIds")
+    List<UUID> findMemberIdsAmong(@Param("groupId") UUID groupId, @Param("userIds") Collection<UUID> userIds);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.MemberRow(u.id, u.name, u.email) " +
+            "FROM GroupMember m JOIN m.user u WHERE m.group.id = :groupId")
+    List<MemberRow> findMemberRowsByGroupId(@Param("groupId") UUID groupId);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.GroupRow(" +
+            "g.id, g.name, g.currency, g.inviteToken, g.createdBy.id, g.createdAt) " +
+            "FROM GroupMember m JOIN m.group g WHERE m.user.id = :userId")
+    List<GroupRow> findGroupRowsByUserId(@Param("userId") UUID userId);
 }
@@ -1,13 +1,41 @@
 package com.splitwise.clone.repository;
 
 import com.splitwise.clone.entity.Group;
+import com.splitwise.clone.repository.projection.GroupRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, UUID> {
     Optional<Group> findByInviteToken(String inviteToken);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.GroupRow(" +
+            "g.id, g.name, g.currency, g.inviteToken, g.createdBy.id, g.createdAt) FROM Group g WHERE g.id = :id")
+    Optional<GroupRow> findRowById(@Param("id") UUID id);
+
+    @Query("SELECT g.version FROM Group g WHERE g.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    // Bumping the version takes the row lock until commit, so writers to the same group queue here.
+    // Not PESSIMISTIC_FORCE_INCREMENT: Hibernate renders that as FOR UPDATE NOWAIT, which fails instead of waiting
+    @Modifying
+    @Query("UPDATE Group g SET g.version = g.version + 1 WHERE g.id = :id")
+    int lockForWrite(@Param("id") UUID id);
+
+    // The same row lock without the bump, for readers that hold off writers but may change nothing
+    @Query(value = "SELECT id FROM groups WHERE id = :id FOR NO KEY UPDATE", nativeQuery = true)
+    Optional<UUID> lockRow(@Param("id") UUID id);
+
+    // Locks in id order so writers touching several groups cannot deadlock each other
+    @Modifying
+    @Query(value = "UPDATE groups SET version = version + 1 WHERE id IN " +
+            "(SELECT id FROM groups WHERE id IN :ids ORDER BY id FOR NO KEY UPDATE)", nativeQuery = true)
+    int lockAllForWrite(@Param("ids") Collection<UUID> ids);
 }
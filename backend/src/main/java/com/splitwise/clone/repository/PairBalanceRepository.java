@@ -0,0 +1,32 @@
+package com.splitwise.clone.repository;
+
+import com.splitwise.clone.entity.PairBalance;
+import com.splitwise.clone.repository.projection.CounterpartyAmount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PairBalanceRepository extends JpaRepository<PairBalance, UUID> {
+
+    // One statement for all touched pairs; the arrays are parallel and must not repeat a pair
+    @Modifying
+    @Query(value = "INSERT INTO pair_balances (id, user_id, counterparty_id, currency, net_amount, updated_at) " +
+            "SELECT gen_random_uuid(), t.user_id, t.counterparty_id, t.currency, t.delta, now() " +
+            "FROM unnest(:userIds, :counterpartyIds, :currencies, :deltas) " +
+            "AS t(user_id, counterparty_id, currency, delta) " +
+            "ON CONFLICT (user_id, counterparty_id, currency) DO UPDATE " +
+            "SET net_amount = pair_balances.net_amount + EXCLUDED.net_amount, updated_at = now()", nativeQuery = true)
+    int addToBalances(@Param("userIds") UUID[] userIds, @Param("counterpartyIds") UUID[] counterpartyIds,
+            @Param("currencies") String[] currencies, @Param("deltas") BigDecimal[] deltas);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.CounterpartyAmount(c.id, c.name, p.currency, p.netAmount) " +
+            "FROM PairBalance p JOIN p.counterparty c WHERE p.user.id = :userId AND p.netAmount <> 0")
+    List<CounterpartyAmount> findCounterpartiesByUserId(@Param("userId") UUID userId);
+}
@@ -3,16 +3,56 @@ package com.splitwise.clone.repository;
 import com.splitwise.clone.entity.Group;
 import com.splitwise.clone.entity.Settlement;
 import com.splitwise.clone.entity.User;
+import com.splitwise.clone.repository.projection.SettlementRow;
+import com.splitwise.clone.repository.projection.TransferAmount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface SettlementRepository extends JpaRepository<Settlement, UUID> {
     List<Settlement> findByGroup(Group group);
 
+    @Query("SELECT new com.splitwise.clone.repository.projection.SettlementRow(s.id, f.id, f.name, t.id, t.name, " +
+            "s.amount, s.currency, s.status, s.createdAt, s.settledAt) FROM Settlement s JOIN s.fromUser f JOIN s.toUser t " +
+            "WHERE s.group.id = :groupId ORDER BY s.createdAt, s.id")
+    List<SettlementRow> findRowsByGroupId(@Param("groupId") UUID groupId);
+
+    // Keyset pagination on (createdAt, id); the first page has no cursor
+    @Query("SELECT new com.splitwise.clone.repository.projection.SettlementRow(s.id, f.id, f.name, t.id, t.name, " +
+            "s.amount, s.currency, s.status, s.createdAt, s.settledAt) FROM Settlement s JOIN s.fromUser f JOIN s.toUser t " +
+            "WHERE s.group.id = :groupId ORDER BY s.createdAt, s.id")
+    List<SettlementRow> findFirstPageByGroupId(@Param("groupId") UUID groupId, Pageable pageable);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.SettlementRow(s.id, f.id, f.name, t.id, t.name, " +
+            "s.amount, s.currency, s.status, s.createdAt, s.settledAt) FROM Settlement s JOIN s.fromUser f JOIN s.toUser t " +
+            "WHERE s.group.id = :groupId " +
+            "AND (s.createdAt > :createdAt OR (s.createdAt = :createdAt AND s.id > :id)) " +
+            "ORDER BY s.createdAt, s.id")
+    List<SettlementRow> findPageByGroupIdAfter(@Param("groupId") UUID groupId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    // Server-side cursor for exports; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.splitwise.clone.repository.projection.SettlementRow(s.id, f.id, f.name, t.id, t.name, " +
+            "s.amount, s.currency, s.status, s.createdAt, s.settledAt) FROM Settlement s JOIN s.fromUser f JOIN s.toUser t " +
+            "WHERE s.group.id = :groupId ORDER BY s.createdAt, s.id")
+    Stream<SettlementRow> streamRowsByGroupId(@Param("groupId") UUID groupId);
+
+    @Query("SELECT new com.splitwise.clone.repository.projection.TransferAmount(" +
+            "s.fromUser.id, s.toUser.id, s.currency, s.amount) FROM Settlement s WHERE s.group.id = :groupId")
+    List<TransferAmount> findTransfersByGroupId(@Param("groupId") UUID groupId);
+
     List<Settlement> findByFromUserOrToUser(User fromUser, User toUser);
 
     boolean existsByGroupAndFromUserOrToUser(Group group, User fromUser, User toUser);
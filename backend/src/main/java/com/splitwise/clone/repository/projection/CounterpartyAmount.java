@@ -0,0 +1,7 @@
+package com.splitwise.clone.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record CounterpartyAmount(UUID counterpartyId, String counterpartyName, String currency, BigDecimal amount) {
+}
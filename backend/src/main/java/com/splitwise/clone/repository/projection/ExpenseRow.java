@@ -0,0 +1,9 @@
+package com.splitwise.clone.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ExpenseRow(UUID id, String description, BigDecimal amount, String currency, UUID paidById,
+        String paidByName, LocalDateTime createdAt) {
+}
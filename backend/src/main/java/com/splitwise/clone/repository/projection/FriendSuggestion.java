@@ -0,0 +1,13 @@
+package com.splitwise.clone.repository.projection;
+
+import java.util.UUID;
+
+public interface FriendSuggestion {
+    UUID getId();
+
+    String getName();
+
+    String getEmail();
+
+    long getMutualFriends();
+}
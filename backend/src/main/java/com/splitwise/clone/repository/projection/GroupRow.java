@@ -0,0 +1,8 @@
+package com.splitwise.clone.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record GroupRow(UUID id, String name, String currency, String inviteToken, UUID createdById,
+        LocalDateTime createdAt) {
+}
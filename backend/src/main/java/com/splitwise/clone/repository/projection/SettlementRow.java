@@ -0,0 +1,12 @@
+package com.splitwise.clone.repository.projection;
+
+import com.splitwise.clone.enums.SettlementStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record SettlementRow(UUID id, UUID fromUserId, String fromUserName, UUID toUserId, String toUserName,
+        BigDecimal amount, String currency, SettlementStatus status, LocalDateTime createdAt,
+        LocalDateTime settledAt) {
+}
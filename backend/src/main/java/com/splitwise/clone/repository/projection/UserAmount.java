@@ -0,0 +1,11 @@
+package com.splitwise.clone.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One signed contribution to a member's balance: an amount paid, owed or held in the
+ * ledger.
+ */
+public record UserAmount(UUID userId, String currency, BigDecimal amount) {
+}
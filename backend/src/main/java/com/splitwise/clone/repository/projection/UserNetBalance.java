@@ -0,0 +1,12 @@
+package com.splitwise.clone.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface UserNetBalance {
+    UUID getUserId();
+
+    String getCurrency();
+
+    BigDecimal getNetBalance();
+}
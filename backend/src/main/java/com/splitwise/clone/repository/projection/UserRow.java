@@ -0,0 +1,6 @@
+package com.splitwise.clone.repository.projection;
+
+import java.util.UUID;
+
+public record UserRow(UUID id, String name, String email) {
+}
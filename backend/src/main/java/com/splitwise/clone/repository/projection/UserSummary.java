@@ -0,0 +1,11 @@
+package com.splitwise.clone.repository.projection;
+
+import java.util.UUID;
+
+public interface UserSummary {
+    UUID getId();
+
+    String getName();
+
+    String getEmail();
+}
@@ -0,0 +1,144 @@
+package com.splitwise.clone.service;
+
+import com.splitwise.clone.entity.Group;
+import com.splitwise.clone.repository.GroupRepository;
+import com.splitwise.clone.service.money.CurrencyBalances;
+import com.splitwise.clone.service.money.MemberBalances;
+import com.splitwise.clone.service.money.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Periodically replays every group's history and compares it with the running
+ * balances in the ledger. Drift is logged and, unless disabled, repaired in place.
+ */
+@Slf4j
+@Component
+public class BalanceLedgerReconciler {
+    private static final int PAGE_SIZE = 100;
+
+    private final GroupRepository groupRepository;
+    private final BalanceService balanceService;
+    private final BalanceLedgerService balanceLedgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean repair;
+
+    public BalanceLedgerReconciler(GroupRepository groupRepository,
+            BalanceService balanceService,
+            BalanceLedgerService balanceLedgerService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${splitwise.ledger.reconcile.repair:true}") boolean repair) {
+        this.groupRepository = groupRepository;
+        this.balanceService = balanceService;
+        this.balanceLedgerService = balanceLedgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Ledger and history must be read from the same snapshot, or in-flight writes look like drift
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.meterRegistry = meterRegistry;
+        this.repair = repair;
+    }
+
+    @Scheduled(cron = "${splitwise.ledger.reconcile.cron:0 0 3 * * *}")
+    public void reconcileAll() {
+        int checked = 0, drifted = 0, failed = 0;
+        Page<Group> page = groupRepository.findAll(PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+        while (true) {
+            for (Group group : page) {
+                checked++;
+                try {
+                    if (Boolean.FALSE.equals(transactionTemplate.execute(status -> reconcileGroup(group.getId())))) {
+                        drifted++;
+                    }
+                } catch (DataAccessException ex) {
+                    // Concurrent writes to the same group; the next run will pick it up again
+                    log.warn("Skipped ledger reconciliation for group {}: {}", group.getId(), ex.getMessage());
+                    failed(ex);
+                    failed++;
+                } catch (RuntimeException ex) {
+                    // One broken group must not stop the rest of the run
+                    log.error("Ledger reconciliation failed for group {}", group.getId(), ex);
+                    failed(ex);
+                    failed++;
+                }
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = groupRepository.findAll(page.nextPageable());
+        }
+        log.info("Ledger reconciliation finished: {} groups checked, {} drifted, {} failed", checked, drifted,
+                failed);
+    }
+
+    private void failed(RuntimeException ex) {
+        meterRegistry.counter("splitwise.ledger.reconcile.failed", "exception", ex.getClass().getSimpleName())
+                .increment();
+    }
+
+    /**
+     * Must run inside a transaction. Returns {@code true} when the ledger matched the history.
+     */
+    public boolean reconcileGroup(UUID groupId) {
+        // Hold off writers so the history and the ledger are read at the same point. The version
+        // is only bumped below if the ledger is rewritten, so clean groups keep their cached snapshots
+        groupRepository.lockRow(groupId);
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new RuntimeException("Group not found"));
+        CurrencyBalances history = balanceService.computeNetBalancesFromHistory(group);
+        Map<String, Map<UUID, BigDecimal>> ledger = balanceLedgerService.getNetBalances(group);
+
+        Set<String> currencies = new HashSet<>(ledger.keySet());
+        currencies.addAll(history.currencies());
+        boolean matches = true;
+        for (String currency : currencies) {
+            MemberBalances expected = history.in(currency);
+            Map<UUID, BigDecimal> actual = ledger.getOrDefault(currency, Map.of());
+            Set<UUID> userIds = new HashSet<>(actual.keySet());
+            for (int i = 0; i < expected.size(); i++) {
+                userIds.add(expected.userId(i));
+            }
+            for (UUID userId : userIds) {
+                long want = expected.get(userId);
+                long have = Money.toMinorUnits(actual.getOrDefault(userId, BigDecimal.ZERO), expected.scale());
+                if (want != have) {
+                    log.warn("Ledger drift in group {} for user {} in {}: ledger={}, history={}", groupId, userId,
+                            currency, Money.toBigDecimal(have, expected.scale()),
+                            Money.toBigDecimal(want, expected.scale()));
+                    matches = false;
+                }
+            }
+        }
+
+        if (!matches && repair) {
+            Map<String, Map<UUID, BigDecimal>> repaired = new HashMap<>();
+            history.asMap().forEach((currency, expected) -> {
+                Map<UUID, BigDecimal> balances = repaired.computeIfAbsent(currency, code -> new HashMap<>());
+                for (int i = 0; i < expected.size(); i++) {
+                    balances.put(expected.userId(i), Money.toBigDecimal(expected.get(i), expected.scale()));
+                }
+            });
+            balanceLedgerService.replaceBalances(group, repaired);
+            groupRepository.lockForWrite(groupId);
+        }
+        return matches;
+    }
+}
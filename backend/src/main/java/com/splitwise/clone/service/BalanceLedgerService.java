@@ -0,0 +1,113 @@
+package com.splitwise.clone.service;
+
+import com.splitwise.clone.entity.*;
+import com.splitwise.clone.repository.GroupBalanceRepository;
+import com.splitwise.clone.repository.projection.UserAmount;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains the per-member running balances in {@code group_balances}, one per
+ * currency the member has used in the group. Every write must join the transaction of
+ * the expense or settlement it mirrors, so the ledger can never commit without the
+ * history row (or the other way round).
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceLedgerService {
+    private final GroupBalanceRepository groupBalanceRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpense(Expense expense, List<ExpenseSplit> splits) {
+        applyDeltas(expense.getGroup().getId(), expense.getCurrency(), expenseDeltas(expense, splits, false));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseExpense(Expense expense, List<ExpenseSplit> splits) {
+        applyDeltas(expense.getGroup().getId(), expense.getCurrency(), expenseDeltas(expense, splits, true));
+    }
+
+    /**
+     * Records many expenses at once, issuing one upsert per touched (group, member,
+     * currency) instead of one per split.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpenses(Map<Expense, List<ExpenseSplit>> splitsByExpense) {
+        Map<GroupCurrency, Map<UUID, BigDecimal>> deltasByGroup = new HashMap<>();
+        splitsByExpense.forEach((expense, splits) -> {
+            Map<UUID, BigDecimal> groupDeltas = deltasByGroup.computeIfAbsent(
+                    new GroupCurrency(expense.getGroup().getId(), expense.getCurrency()), key -> new HashMap<>());
+            expenseDeltas(expense, splits, false).forEach((userId, delta) -> groupDeltas.merge(userId, delta,
+                    BigDecimal::add));
+        });
+        deltasByGroup.forEach((key, deltas) -> applyDeltas(key.groupId(), key.currency(), deltas));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSettlement(Settlement settlement) {
+        Map<UUID, BigDecimal> deltas = new HashMap<>();
+        deltas.merge(settlement.getFromUser().getId(), settlement.getAmount(), BigDecimal::add);
+        deltas.merge(settlement.getToUser().getId(), settlement.getAmount().negate(), BigDecimal::add);
+        applyDeltas(settlement.getGroup().getId(), settlement.getCurrency(), deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDeltas(UUID groupId, String currency, Map<UUID, BigDecimal> deltas) {
+        // Sorted so concurrent writers touch shared rows in the same order
+        List<Map.Entry<UUID, BigDecimal>> entries = deltas.entrySet().stream()
+                .filter(entry -> entry.getValue().signum() != 0)
+                .sorted(Map.Entry.comparingByKey())
+                .toList();
+        if (entries.isEmpty()) {
+            return;
+        }
+        UUID[] userIds = new UUID[entries.size()];
+        BigDecimal[] amounts = new BigDecimal[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            userIds[i] = entries.get(i).getKey();
+            amounts[i] = entries.get(i).getValue();
+        }
+        groupBalanceRepository.addToBalances(groupId, currency, userIds, amounts);
+    }
+
+    /**
+     * Balances of the group by currency, then by user.
+     */
+    public Map<String, Map<UUID, BigDecimal>> getNetBalances(Group group) {
+        Map<String, Map<UUID, BigDecimal>> balances = new HashMap<>();
+        for (UserAmount balance : groupBalanceRepository.findAmountsByGroupId(group.getId())) {
+            balances.computeIfAbsent(balance.currency(), currency -> new HashMap<>())
+                    .put(balance.userId(), balance.amount());
+        }
+        return balances;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replaceBalances(Group group, Map<String, Map<UUID, BigDecimal>> balances) {
+        groupBalanceRepository.deleteByGroup(group);
+        balances.forEach((currency, deltas) -> applyDeltas(group.getId(), currency, deltas));
+    }
+
+    private Map<UUID, BigDecimal> expenseDeltas(Expense expense, List<ExpenseSplit> splits, boolean reverse) {
+        Map<UUID, BigDecimal> deltas = new HashMap<>();
+        deltas.merge(expense.getPaidBy().getId(), expense.getAmount(), BigDecimal::add);
+        for (ExpenseSplit split : splits) {
+            deltas.merge(split.getUser().getId(), split.getOwedAmount().negate(), BigDecimal::add);
+        }
+        if (reverse) {
+            deltas.replaceAll((userId, delta) -> delta.negate());
+        }
+        return deltas;
+    }
+
+    private record GroupCurrency(UUID groupId, String currency) {
+    }
+}
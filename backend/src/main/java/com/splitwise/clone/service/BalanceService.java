@@ -2,12 +2,26 @@ package com.splitwise.clone.service;
 
 import com.splitwise.clone.dto.BalanceSummaryResponse;
 import com.splitwise.clone.dto.DebtResponse;
-import com.splitwise.clone.entity.*;
+import com.splitwise.clone.entity.Group;
+import com.splitwise.clone.enums.BalanceMode;
 import com.splitwise.clone.repository.*;
+import com.splitwise.clone.repository.projection.MemberRow;
+import com.splitwise.clone.repository.projection.TransferAmount;
+import com.splitwise.clone.repository.projection.UserAmount;
+import com.splitwise.clone.repository.projection.UserNetBalance;
+import com.splitwise.clone.service.debt.DebtSimplificationEngine;
+import com.splitwise.clone.service.debt.DebtSimplifier;
+import com.splitwise.clone.service.fx.FxService;
+import com.splitwise.clone.service.money.CurrencyBalances;
+import com.splitwise.clone.service.money.MemberBalances;
+import com.splitwise.clone.service.money.Money;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
 
 @Service
@@ -18,97 +32,134 @@ public class BalanceService {
     private final ExpenseSplitRepository expenseSplitRepository;
     private final SettlementRepository settlementRepository;
     private final GroupService groupService;
+    private final BalanceLedgerService balanceLedgerService;
+    private final DebtSimplificationEngine debtSimplificationEngine;
+    private final BalanceSnapshotCache balanceSnapshotCache;
+    private final FxService fxService;
+    private final MeterRegistry meterRegistry;
 
+    @Value("${splitwise.balance.mode:LEDGER}")
+    private BalanceMode balanceMode;
+
+    @Transactional(readOnly = true)
     public List<BalanceSummaryResponse> getGroupBalances(UUID groupId) {
-        Group group = groupService.findById(groupId);
-        List<GroupMember> members = groupMemberRepository.findByGroup(group);
-        List<Expense> expenses = expenseRepository.findByGroupAndIsDeletedFalse(group);
-        List<Settlement> settlements = settlementRepository.findByGroup(group);
-
-        Map<UUID, BigDecimal> netBalances = new HashMap<>();
-        for (GroupMember member : members) {
-            netBalances.put(member.getUser().getId(), BigDecimal.ZERO);
-        }
+        return getGroupSnapshot(groupId).balances();
+    }
 
-        // Calculate from expenses
-        for (Expense expense : expenses) {
-            UUID payerId = expense.getPaidBy().getId();
-            netBalances.put(payerId, netBalances.get(payerId).add(expense.getAmount()));
-
-            List<ExpenseSplit> splits = expenseSplitRepository.findByExpense(expense);
-            for (ExpenseSplit split : splits) {
-                UUID userId = split.getUser().getId();
-                netBalances.put(userId, netBalances.get(userId).subtract(split.getOwedAmount()));
-            }
-        }
+    @Transactional(readOnly = true)
+    public List<DebtResponse> getGroupDebts(UUID groupId) {
+        return getGroupSnapshot(groupId).debts();
+    }
 
-        // Calculate from settlements
-        for (Settlement settlement : settlements) {
-            UUID fromId = settlement.getFromUser().getId();
-            UUID toId = settlement.getToUser().getId();
+    @Transactional(readOnly = true)
+    public BalanceSnapshotCache.Snapshot getGroupSnapshot(UUID groupId) {
+        return balanceSnapshotCache.get(groupId, revision -> computeSnapshot(groupId, revision));
+    }
 
-            netBalances.put(fromId, netBalances.get(fromId).add(settlement.getAmount()));
-            netBalances.put(toId, netBalances.get(toId).subtract(settlement.getAmount()));
+    private BalanceSnapshotCache.Snapshot computeSnapshot(UUID groupId, long revision) {
+        String currency = groupService.findRowById(groupId).currency();
+        List<MemberRow> members = new ArrayList<>();
+        CurrencyBalances byCurrency = loadMemberBalances(groupService.getReference(groupId), members);
+        meterRegistry.summary("splitwise.group.members").record(members.size());
+
+        // Groups that only used their own currency skip conversion and never expire with the rates
+        boolean convert = byCurrency.currencies().stream().anyMatch(code -> !code.equals(currency));
+        LocalDate ratesDate = convert ? LocalDate.now() : null;
+        MemberBalances balances = convert
+                ? fxService.toCurrency(byCurrency, currency, ratesDate)
+                : byCurrency.in(currency);
+
+        List<BalanceSummaryResponse> summaries = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            MemberRow member = members.get(i);
+            summaries.add(BalanceSummaryResponse.builder()
+                    .userId(member.userId())
+                    .userName(member.name())
+                    .netBalance(Money.toBigDecimal(balances.get(i), balances.scale()))
+                    .currency(currency)
+                    .build());
         }
 
-        List<BalanceSummaryResponse> summaries = new ArrayList<>();
-        for (GroupMember member : members) {
-            User user = member.getUser();
-            summaries.add(BalanceSummaryResponse.builder()
-                    .userId(user.getId())
-                    .userName(user.getName())
-                    .netBalance(netBalances.get(user.getId()))
+        List<DebtResponse> debts = new ArrayList<>();
+        for (DebtSimplifier.Transfer transfer : debtSimplificationEngine.simplify(balances.toArray(members.size()))) {
+            MemberRow debtor = members.get(transfer.from());
+            MemberRow creditor = members.get(transfer.to());
+            debts.add(DebtResponse.builder()
+                    .fromUserId(debtor.userId())
+                    .fromUserName(debtor.name())
+                    .toUserId(creditor.userId())
+                    .toUserName(creditor.name())
+                    .amount(Money.toBigDecimal(transfer.amount(), balances.scale()))
+                    .currency(currency)
                     .build());
         }
 
-        return summaries;
+        return new BalanceSnapshotCache.Snapshot(revision, List.copyOf(summaries), List.copyOf(debts), ratesDate);
     }
 
-    public List<DebtResponse> getGroupDebts(UUID groupId) {
-        List<BalanceSummaryResponse> balances = getGroupBalances(groupId);
-
-        // Separate into debtors and creditors
-        List<BalanceSummaryResponse> debtors = new ArrayList<>();
-        List<BalanceSummaryResponse> creditors = new ArrayList<>();
-
-        for (BalanceSummaryResponse b : balances) {
-            if (b.getNetBalance().compareTo(BigDecimal.ZERO) < 0) {
-                debtors.add(b);
-            } else if (b.getNetBalance().compareTo(BigDecimal.ZERO) > 0) {
-                creditors.add(b);
-            }
+    /**
+     * Fills {@code members} with the group's users and returns their balances per
+     * currency, where index {@code i} of each currency belongs to {@code members.get(i)}.
+     */
+    private CurrencyBalances loadMemberBalances(Group group, List<MemberRow> members) {
+        List<UUID> memberIds = new ArrayList<>();
+        for (MemberRow member : groupMemberRepository.findMemberRowsByGroupId(group.getId())) {
+            members.add(member);
+            memberIds.add(member.userId());
         }
 
-        // Sort to optimize transactions (optional but helpful)
-        debtors.sort(Comparator.comparing(BalanceSummaryResponse::getNetBalance));
-        creditors.sort(Comparator.comparing(BalanceSummaryResponse::getNetBalance).reversed());
-
-        List<DebtResponse> debts = new ArrayList<>();
-        int d = 0, c = 0;
-
-        while (d < debtors.size() && c < creditors.size()) {
-            BalanceSummaryResponse debtor = debtors.get(d);
-            BalanceSummaryResponse creditor = creditors.get(c);
-
-            BigDecimal amountToPay = debtor.getNetBalance().abs().min(creditor.getNetBalance());
+        CurrencyBalances balances = new CurrencyBalances(memberIds);
+        switch (balanceMode) {
+            case LEDGER -> balanceLedgerService.getNetBalances(group).forEach((currency, amounts) -> {
+                MemberBalances inCurrency = balances.in(currency);
+                amounts.forEach((userId, amount) ->
+                        inCurrency.add(userId, Money.toMinorUnits(amount, inCurrency.scale())));
+            });
+            case IN_MEMORY -> replayHistory(group, balances);
+            case SQL_AGGREGATE -> aggregateNetBalances(group, balances);
+        }
+        return balances;
+    }
 
-            debts.add(DebtResponse.builder()
-                    .fromUserId(debtor.getUserId())
-                    .fromUserName(debtor.getUserName())
-                    .toUserId(creditor.getUserId())
-                    .toUserName(creditor.getUserName())
-                    .amount(amountToPay)
-                    .build());
+    /**
+     * Replays the full expense and settlement history of a group in memory. Backs
+     * {@link BalanceMode#IN_MEMORY} and verifies the running balances kept by
+     * {@link BalanceLedgerService}.
+     */
+    public CurrencyBalances computeNetBalancesFromHistory(Group group) {
+        CurrencyBalances balances = new CurrencyBalances(List.of());
+        replayHistory(group, balances);
+        return balances;
+    }
 
-            debtor.setNetBalance(debtor.getNetBalance().add(amountToPay));
-            creditor.setNetBalance(creditor.getNetBalance().subtract(amountToPay));
+    private void replayHistory(Group group, CurrencyBalances balances) {
+        // Calculate from expenses
+        for (UserAmount paid : expenseRepository.findPaidAmountsByGroupId(group.getId())) {
+            MemberBalances inCurrency = balances.in(paid.currency());
+            inCurrency.add(paid.userId(), Money.toMinorUnits(paid.amount(), inCurrency.scale()));
+        }
+        for (UserAmount owed : expenseSplitRepository.findOwedAmountsByGroupId(group.getId())) {
+            MemberBalances inCurrency = balances.in(owed.currency());
+            inCurrency.add(owed.userId(), -Money.toMinorUnits(owed.amount(), inCurrency.scale()));
+        }
 
-            if (debtor.getNetBalance().compareTo(BigDecimal.ZERO) == 0)
-                d++;
-            if (creditor.getNetBalance().compareTo(BigDecimal.ZERO) == 0)
-                c++;
+        // Calculate from settlements
+        for (TransferAmount settlement : settlementRepository.findTransfersByGroupId(group.getId())) {
+            MemberBalances inCurrency = balances.in(settlement.currency());
+            long amount = Money.toMinorUnits(settlement.amount(), inCurrency.scale());
+            inCurrency.add(settlement.fromUserId(), amount);
+            inCurrency.add(settlement.toUserId(), -amount);
         }
+    }
 
-        return debts;
+    /**
+     * Sums the group history inside the database, so memory use does not grow with
+     * the number of expenses. Backs {@link BalanceMode#SQL_AGGREGATE}.
+     */
+    private void aggregateNetBalances(Group group, CurrencyBalances balances) {
+        for (UserNetBalance row : expenseRepository.sumNetBalancesByGroupId(group.getId())) {
+            MemberBalances inCurrency = balances.in(row.getCurrency());
+            inCurrency.add(row.getUserId(), Money.toMinorUnits(row.getNetBalance(), inCurrency.scale()));
+        }
     }
 }
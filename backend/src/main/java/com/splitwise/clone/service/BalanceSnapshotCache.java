@@ -0,0 +1,105 @@
+package com.splitwise.clone.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.splitwise.clone.dto.BalanceSummaryResponse;
+import com.splitwise.clone.dto.DebtResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Size-bounded cache of each group's balances and simplified debts, tagged with the
+ * {@link GroupRevisions} value they were computed at. A snapshot is served only while
+ * the group's revision has not moved on (and, for groups converted from other
+ * currencies, while the day's rates still apply), and concurrent misses for the same
+ * group wait for a single computation instead of each replaying the group.
+ */
+@Component
+public class BalanceSnapshotCache {
+    private final GroupRevisions groupRevisions;
+    private final Cache<UUID, Snapshot> snapshots;
+    private final Map<UUID, CompletableFuture<Snapshot>> inFlight = new ConcurrentHashMap<>();
+
+    public BalanceSnapshotCache(GroupRevisions groupRevisions,
+            MeterRegistry meterRegistry,
+            @Value("${splitwise.cache.balances.max-size:10000}") long maxSize) {
+        this.groupRevisions = groupRevisions;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "balanceSnapshots");
+    }
+
+    /**
+     * Returns a snapshot at least as new as the group's current revision, computing it
+     * with {@code loader} (which receives that revision) on a miss.
+     */
+    public Snapshot get(UUID groupId, LongFunction<Snapshot> loader) {
+        while (true) {
+            long revision = groupRevisions.current(groupId);
+            Snapshot cached = snapshots.getIfPresent(groupId);
+            if (cached != null && cached.revision() >= revision && cached.ratesCurrent()) {
+                return cached;
+            }
+
+            CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+            CompletableFuture<Snapshot> running = inFlight.putIfAbsent(groupId, mine);
+            if (running != null) {
+                Snapshot shared = join(running);
+                // A computation that started before our revision was read may predate a write we must see
+                if (shared.revision() >= revision) {
+                    return shared;
+                }
+                continue;
+            }
+
+            try {
+                Snapshot computed = loader.apply(revision);
+                snapshots.asMap().merge(groupId, computed,
+                        (existing, fresh) -> existing.revision() > fresh.revision() ? existing : fresh);
+                mine.complete(computed);
+                return computed;
+            } catch (RuntimeException ex) {
+                mine.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                inFlight.remove(groupId, mine);
+            }
+        }
+    }
+
+    private static Snapshot join(CompletableFuture<Snapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * {@code ratesDate} is the day whose FX rates converted the balances, or {@code null}
+     * when no conversion was needed.
+     */
+    public record Snapshot(long revision, List<BalanceSummaryResponse> balances, List<DebtResponse> debts,
+            LocalDate ratesDate) {
+
+        boolean ratesCurrent() {
+            return ratesDate == null || ratesDate.equals(LocalDate.now());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.splitwise.clone.service;
+
+import com.splitwise.clone.dto.BalanceSummaryResponse;
+import com.splitwise.clone.dto.DashboardGroupResponse;
+import com.splitwise.clone.dto.DashboardResponse;
+import com.splitwise.clone.dto.DebtResponse;
+import com.splitwise.clone.dto.GroupResponse;
+import com.splitwise.clone.service.fx.FxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds a user's home screen in one call. Each group's balance snapshot is loaded on
+ * the dashboard executor; whatever has not finished by the deadline is reported in
+ * {@link DashboardResponse#getPendingGroupIds()} instead of holding up the response.
+ * A summary already running at the deadline finishes and lands in the snapshot cache
+ * for the next call; one still queued is dropped. Group balances stay in each group's
+ * currency; the total is converted into {@code splitwise.money.currency} at today's
+ * rates, and a group that cannot be converted is reported as pending too.
+ */
+@Slf4j
+@Service
+public class DashboardService {
+    private final GroupService groupService;
+    private final BalanceService balanceService;
+    private final FxService fxService;
+    private final String currency;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration deadline;
+    private final int topDebts;
+
+    public DashboardService(GroupService groupService,
+            BalanceService balanceService,
+            FxService fxService,
+            MeterRegistry meterRegistry,
+            @Value("${splitwise.money.currency:INR}") String currency,
+            @Value("${splitwise.dashboard.pool-size:8}") int poolSize,
+            @Value("${splitwise.dashboard.queue-capacity:256}") int queueCapacity,
+            @Value("${splitwise.dashboard.deadline:2s}") Duration deadline,
+            @Value("${splitwise.dashboard.top-debts:3}") int topDebts) {
+        this.groupService = groupService;
+        this.balanceService = balanceService;
+        this.fxService = fxService;
+        this.currency = currency;
+        this.deadline = deadline;
+        this.topDebts = topDebts;
+        // Kept private rather than a bean so it does not replace Boot's applicationTaskExecutor.
+        // Bounded so dashboards cannot take over the connection pool; overflow is rejected, not queued.
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "dashboard");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public DashboardResponse getDashboard(UUID userId) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        List<GroupResponse> groups = groupService.getUserGroups(userId);
+
+        LocalDate today = LocalDate.now();
+        List<CompletableFuture<GroupSummary>> futures = new ArrayList<>(groups.size());
+        for (GroupResponse group : groups) {
+            CompletableFuture<GroupSummary> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> summarize(group, userId, today, deadlineNanos), executor)
+                        .whenComplete((summary, ex) -> {
+                            if (ex != null && !(ex.getCause() instanceof CancellationException)) {
+                                log.warn("Dashboard summary failed for group {}", group.getId(), ex);
+                            }
+                        });
+            } catch (RejectedExecutionException ex) {
+                // Executor saturated: report the group as pending rather than queueing behind other users
+                future = CompletableFuture.failedFuture(ex);
+            }
+            futures.add(future);
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            // Partial result; the pending groups are listed below
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            // A failed group is reported as pending; the others are still returned
+        }
+
+        List<DashboardGroupResponse> summaries = new ArrayList<>(groups.size());
+        List<UUID> pending = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < groups.size(); i++) {
+            CompletableFuture<GroupSummary> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                GroupSummary summary = future.join();
+                summaries.add(summary.response());
+                total = total.add(summary.converted());
+            } else {
+                pending.add(groups.get(i).getId());
+            }
+        }
+
+        return DashboardResponse.builder()
+                .userId(userId)
+                .totalNetBalance(total)
+                .currency(currency)
+                .groups(summaries)
+                .complete(pending.isEmpty())
+                .pendingGroupIds(pending)
+                .build();
+    }
+
+    private GroupSummary summarize(GroupResponse group, UUID userId, LocalDate today, long deadlineNanos) {
+        // Still queued when the request gave up on it: free the slot instead of computing for nobody
+        if (System.nanoTime() - deadlineNanos > 0) {
+            throw new CancellationException("Dashboard deadline passed");
+        }
+        BalanceSnapshotCache.Snapshot snapshot = balanceService.getGroupSnapshot(group.getId());
+        BigDecimal netBalance = snapshot.balances().stream()
+                .filter(balance -> balance.getUserId().equals(userId))
+                .map(BalanceSummaryResponse::getNetBalance)
+                .findFirst()
+                .orElse(BigDecimal.ZERO);
+        List<DebtResponse> debts = snapshot.debts().stream()
+                .filter(debt -> debt.getFromUserId().equals(userId) || debt.getToUserId().equals(userId))
+                .sorted(Comparator.comparing(DebtResponse::getAmount).reversed())
+                .limit(topDebts)
+                .toList();
+        DashboardGroupResponse response = DashboardGroupResponse.builder()
+                .group(group)
+                .netBalance(netBalance)
+                .topDebts(debts)
+                .build();
+        return new GroupSummary(response, fxService.convert(netBalance, group.getCurrency(), currency, today));
+    }
+
+    private record GroupSummary(DashboardGroupResponse response, BigDecimal converted) {
+    }
+}
@@ -0,0 +1,474 @@
+package com.splitwise.clone.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.splitwise.clone.dto.BulkImportError;
+import com.splitwise.clone.dto.BulkImportResponse;
+import com.splitwise.clone.dto.CreateExpenseRequest;
+import com.splitwise.clone.dto.ExpenseItemRequest;
+import com.splitwise.clone.dto.ExpenseSplitRequest;
+import com.splitwise.clone.entity.Expense;
+import com.splitwise.clone.entity.ExpenseSplit;
+import com.splitwise.clone.entity.Group;
+import com.splitwise.clone.entity.User;
+import com.splitwise.clone.enums.ImportFormat;
+import com.splitwise.clone.enums.SplitMode;
+import com.splitwise.clone.exception.SplitwiseException;
+import com.splitwise.clone.repository.ExpenseRepository;
+import com.splitwise.clone.repository.ExpenseSplitRepository;
+import com.splitwise.clone.repository.GroupMemberRepository;
+import com.splitwise.clone.repository.GroupRepository;
+import com.splitwise.clone.repository.UserRepository;
+import com.splitwise.clone.service.fx.FxService;
+import com.splitwise.clone.service.split.SplitCalculator;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams expenses from an NDJSON or CSV upload into the database in chunks. Each
+ * chunk resolves its users and groups with one lookup each, checks memberships with one
+ * query per group and is written with JDBC batch inserts in its own transaction; a row
+ * that fails validation, lookup or the membership check is reported and skipped without
+ * aborting the rest of the load. As with single writes, the payer and every split user
+ * must belong to the group.
+ *
+ * <p>CSV uploads need a header row with the columns {@code groupId, description,
+ * amount, paidBy, createdBy, splits} and optionally {@code currency} and
+ * {@code splitMode}, where {@code splits} is a {@code ;}-separated list of
+ * {@code userId:value} pairs. The value is the owed amount, percentage or shares
+ * depending on the mode and is left out for {@code EQUAL}. Itemized splits are only
+ * accepted in NDJSON.
+ */
+@Slf4j
+@Service
+public class ExpenseImportService {
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final PairBalanceService pairBalanceService;
+    private final OutboxService outboxService;
+    private final FxService fxService;
+    private final SplitCalculator splitCalculator;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ExpenseImportService(ExpenseRepository expenseRepository,
+            ExpenseSplitRepository expenseSplitRepository,
+            UserRepository userRepository,
+            GroupRepository groupRepository,
+            GroupMemberRepository groupMemberRepository,
+            BalanceLedgerService balanceLedgerService,
+            PairBalanceService pairBalanceService,
+            OutboxService outboxService,
+            FxService fxService,
+            SplitCalculator splitCalculator,
+            ObjectMapper objectMapper,
+            Validator validator,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${splitwise.import.chunk-size:500}") int chunkSize) {
+        this.expenseRepository = expenseRepository;
+        this.expenseSplitRepository = expenseSplitRepository;
+        this.userRepository = userRepository;
+        this.groupRepository = groupRepository;
+        this.groupMemberRepository = groupMemberRepository;
+        this.balanceLedgerService = balanceLedgerService;
+        this.pairBalanceService = pairBalanceService;
+        this.outboxService = outboxService;
+        this.fxService = fxService;
+        this.splitCalculator = splitCalculator;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkImportResponse importExpenses(InputStream input, ImportFormat format) {
+        ImportResult result = new ImportResult();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        Iterator<ImportRow> rows = format == ImportFormat.CSV ? csvRows(input) : ndjsonRows(input);
+        while (rows.hasNext()) {
+            ImportRow row = rows.next();
+            if (row.error() != null) {
+                result.fail(row.line(), row.error());
+                continue;
+            }
+            String violation = validate(row.request());
+            if (violation != null) {
+                result.fail(row.line(), violation);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+
+        return BulkImportResponse.builder()
+                .imported(result.imported)
+                .failed(result.errors.size())
+                .errors(result.errors)
+                .build();
+    }
+
+    private void importChunk(List<ImportRow> chunk, ImportResult result) {
+        Set<UUID> userIds = new HashSet<>();
+        Map<UUID, Set<UUID>> involvedByGroup = new HashMap<>();
+        for (ImportRow row : chunk) {
+            CreateExpenseRequest request = row.request();
+            Set<UUID> involved = involvedByGroup.computeIfAbsent(request.getGroupId(), id -> new HashSet<>());
+            involved.add(request.getPaidBy());
+            forEachSplitUser(request, involved::add);
+            userIds.addAll(involved);
+            userIds.add(request.getCreatedBy());
+        }
+        Map<UUID, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<UUID, Group> groups = groupRepository.findAllById(involvedByGroup.keySet()).stream()
+                .collect(Collectors.toMap(Group::getId, Function.identity()));
+        Map<UUID, Set<UUID>> membersByGroup = new HashMap<>();
+        for (UUID groupId : groups.keySet()) {
+            membersByGroup.put(groupId, new HashSet<>(
+                    groupMemberRepository.findMemberIdsAmong(groupId, involvedByGroup.get(groupId))));
+        }
+
+        List<ImportRow> resolvable = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            String missing = findMissingReference(row.request(), users, groups);
+            if (missing == null) {
+                missing = findNonMember(row.request(), membersByGroup.get(row.request().getGroupId()));
+            }
+            if (missing != null) {
+                result.fail(row.line(), missing);
+                continue;
+            }
+            try {
+                CreateExpenseRequest request = row.request();
+                request.setCurrency(fxService.resolveCurrency(request.getCurrency(),
+                        groups.get(request.getGroupId()).getCurrency()));
+                resolvable.add(row.withAllocation(splitCalculator.calculate(request, request.getCurrency())));
+            } catch (SplitwiseException ex) {
+                result.fail(row.line(), ex.getMessage());
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(resolvable, users, groups));
+            result.imported += resolvable.size();
+        } catch (DataAccessException ex) {
+            // Something in the batch was rejected by the database; find out which rows by retrying one at a time
+            log.debug("Bulk import chunk failed, retrying row by row: {}", ex.getMessage());
+            entityManager.clear();
+            for (ImportRow row : resolvable) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(row), users, groups));
+                    result.imported++;
+                } catch (DataAccessException rowEx) {
+                    result.fail(row.line(), rowEx.getMostSpecificCause().getMessage());
+                }
+                entityManager.clear();
+            }
+        }
+        // Keep the persistence context from growing with the size of the upload
+        entityManager.clear();
+    }
+
+    private void persist(List<ImportRow> rows, Map<UUID, User> users, Map<UUID, Group> groups) {
+        // Same per-group serialization as single writes, taken for every group of the chunk at once
+        groupRepository.lockAllForWrite(rows.stream().map(row -> row.request().getGroupId()).distinct().toList());
+        List<Expense> expenses = new ArrayList<>(rows.size());
+        List<ExpenseSplit> splits = new ArrayList<>();
+        Map<Expense, List<ExpenseSplit>> splitsByExpense = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            CreateExpenseRequest request = row.request();
+            Expense expense = Expense.builder()
+                    .group(groups.get(request.getGroupId()))
+                    .description(request.getDescription())
+                    .amount(request.getAmount())
+                    .currency(request.getCurrency())
+                    .paidBy(users.get(request.getPaidBy()))
+                    .createdBy(users.get(request.getCreatedBy()))
+                    .build();
+            expenses.add(expense);
+
+            SplitCalculator.Allocation allocation = row.allocation();
+            List<ExpenseSplit> expenseSplits = new ArrayList<>(allocation.size());
+            for (int i = 0; i < allocation.size(); i++) {
+                expenseSplits.add(ExpenseSplit.builder()
+                        .expense(expense)
+                        .user(users.get(allocation.userId(i)))
+                        .owedAmount(allocation.owedAmount(i))
+                        .build());
+            }
+            splits.addAll(expenseSplits);
+            splitsByExpense.put(expense, expenseSplits);
+        }
+
+        expenseRepository.saveAll(expenses);
+        expenseSplitRepository.saveAll(splits);
+        balanceLedgerService.recordExpenses(splitsByExpense);
+        pairBalanceService.recordExpenses(splitsByExpense);
+        outboxService.expensesAdded(splitsByExpense);
+    }
+
+    private String validate(CreateExpenseRequest request) {
+        Set<ConstraintViolation<CreateExpenseRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String findMissingReference(CreateExpenseRequest request, Map<UUID, User> users,
+            Map<UUID, Group> groups) {
+        if (!groups.containsKey(request.getGroupId())) {
+            return "Group not found: " + request.getGroupId();
+        }
+        if (!users.containsKey(request.getPaidBy())) {
+            return "User not found: " + request.getPaidBy();
+        }
+        if (!users.containsKey(request.getCreatedBy())) {
+            return "User not found: " + request.getCreatedBy();
+        }
+        Set<UUID> splitUsers = new LinkedHashSet<>();
+        forEachSplitUser(request, splitUsers::add);
+        for (UUID userId : splitUsers) {
+            if (!users.containsKey(userId)) {
+                return "User not found: " + userId;
+            }
+        }
+        return null;
+    }
+
+    private static String findNonMember(CreateExpenseRequest request, Set<UUID> members) {
+        Set<UUID> involved = new LinkedHashSet<>();
+        involved.add(request.getPaidBy());
+        forEachSplitUser(request, involved::add);
+        for (UUID userId : involved) {
+            if (!members.contains(userId)) {
+                return "User " + userId + " is not a member of this group";
+            }
+        }
+        return null;
+    }
+
+    private static void forEachSplitUser(CreateExpenseRequest request, Consumer<UUID> action) {
+        if (request.getSplits() != null) {
+            request.getSplits().forEach(split -> action.accept(split.getUserId()));
+        }
+        if (request.getItems() != null) {
+            for (ExpenseItemRequest item : request.getItems()) {
+                if (item.getUserIds() != null) {
+                    item.getUserIds().forEach(action);
+                }
+            }
+        }
+    }
+
+    private Iterator<ImportRow> ndjsonRows(InputStream input) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return new Iterator<>() {
+            private long lineNumber;
+            private String next = advance();
+
+            private String advance() {
+                try {
+                    String line;
+                    do {
+                        line = reader.readLine();
+                        lineNumber++;
+                    } while (line != null && line.isBlank());
+                    return line;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public ImportRow next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String line = next;
+                long current = lineNumber;
+                next = advance();
+                try {
+                    return new ImportRow(current, objectMapper.readValue(line, CreateExpenseRequest.class), null);
+                } catch (JsonProcessingException ex) {
+                    return new ImportRow(current, null, "Malformed JSON: " + ex.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    private Iterator<ImportRow> csvRows(InputStream input) {
+        MappingIterator<Map<String, String>> records;
+        try {
+            records = new CsvMapper()
+                    .readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(input);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new Iterator<>() {
+            private long recordNumber;
+
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public ImportRow next() {
+                recordNumber++;
+                Map<String, String> record = records.next();
+                try {
+                    return new ImportRow(recordNumber, fromCsv(record), null);
+                } catch (IllegalArgumentException ex) {
+                    return new ImportRow(recordNumber, null, ex.getMessage());
+                }
+            }
+        };
+    }
+
+    private static CreateExpenseRequest fromCsv(Map<String, String> record) {
+        CreateExpenseRequest request = new CreateExpenseRequest();
+        request.setGroupId(parseUuid(record.get("groupId"), "groupId"));
+        request.setDescription(record.get("description"));
+        request.setAmount(parseAmount(record.get("amount"), "amount"));
+        request.setCurrency(record.get("currency"));
+        request.setPaidBy(parseUuid(record.get("paidBy"), "paidBy"));
+        request.setCreatedBy(parseUuid(record.get("createdBy"), "createdBy"));
+        SplitMode mode = parseSplitMode(record.get("splitMode"));
+        request.setSplitMode(mode);
+
+        List<ExpenseSplitRequest> splits = new ArrayList<>();
+        String splitColumn = record.get("splits");
+        if (splitColumn != null && !splitColumn.isBlank()) {
+            for (String entry : splitColumn.split(";")) {
+                int colon = entry.indexOf(':');
+                ExpenseSplitRequest split = new ExpenseSplitRequest();
+                if (mode == SplitMode.EQUAL) {
+                    split.setUserId(parseUuid(colon < 0 ? entry : entry.substring(0, colon), "splits"));
+                    splits.add(split);
+                    continue;
+                }
+                if (colon < 0) {
+                    throw new IllegalArgumentException("splits: expected userId:value but got '" + entry + "'");
+                }
+                split.setUserId(parseUuid(entry.substring(0, colon), "splits"));
+                BigDecimal value = parseAmount(entry.substring(colon + 1), "splits");
+                switch (mode) {
+                    case PERCENTAGE -> split.setPercentage(value);
+                    case SHARES -> split.setShares(value);
+                    default -> split.setOwedAmount(value);
+                }
+                splits.add(split);
+            }
+        }
+        request.setSplits(splits);
+        return request;
+    }
+
+    private static SplitMode parseSplitMode(String value) {
+        if (value == null || value.isBlank()) {
+            return SplitMode.EXACT;
+        }
+        SplitMode mode;
+        try {
+            mode = SplitMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("splitMode: unknown mode '" + value + "'");
+        }
+        if (mode == SplitMode.ITEMIZED) {
+            throw new IllegalArgumentException("splitMode: ITEMIZED is only supported in NDJSON uploads");
+        }
+        return mode;
+    }
+
+    private static UUID parseUuid(String value, String column) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value.trim());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(column + ": invalid UUID '" + value + "'");
+        }
+    }
+
+    private static BigDecimal parseAmount(String value, String column) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + ": invalid amount '" + value + "'");
+        }
+    }
+
+    private record ImportRow(long line, CreateExpenseRequest request, String error,
+            SplitCalculator.Allocation allocation) {
+
+        private ImportRow(long line, CreateExpenseRequest request, String error) {
+            this(line, request, error, null);
+        }
+
+        private ImportRow withAllocation(SplitCalculator.Allocation allocation) {
+            return new ImportRow(line, request, error, allocation);
+        }
+    }
+
+    private static class ImportResult {
+        private int imported;
+        private final List<BulkImportError> errors = new ArrayList<>();
+
+        private void fail(long line, String error) {
+            errors.add(new BulkImportError(line, error));
+        }
+    }
+}
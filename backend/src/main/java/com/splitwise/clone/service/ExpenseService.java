@@ -1,97 +1,227 @@
 package com.splitwise.clone.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.splitwise.clone.dto.CreateExpenseRequest;
 import com.splitwise.clone.dto.ExpenseResponse;
 import com.splitwise.clone.dto.ExpenseSplitResponse;
+import com.splitwise.clone.dto.PageResponse;
 import com.splitwise.clone.entity.Expense;
 import com.splitwise.clone.entity.ExpenseSplit;
 import com.splitwise.clone.entity.Group;
 import com.splitwise.clone.entity.User;
+import com.splitwise.clone.exception.SplitwiseException;
 import com.splitwise.clone.repository.ExpenseRepository;
 import com.splitwise.clone.repository.ExpenseSplitRepository;
 import com.splitwise.clone.repository.SettlementRepository;
+import com.splitwise.clone.repository.projection.ExpenseRow;
+import com.splitwise.clone.repository.projection.ExpenseSplitRow;
+import com.splitwise.clone.service.fx.FxService;
+import com.splitwise.clone.service.split.SplitCalculator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ExpenseService {
+        private static final int EXPORT_BATCH_SIZE = 500;
+
         private final ExpenseRepository expenseRepository;
         private final ExpenseSplitRepository expenseSplitRepository;
         private final SettlementRepository settlementRepository;
         private final GroupService groupService;
         private final UserService userService;
+        private final BalanceLedgerService balanceLedgerService;
+        private final PairBalanceService pairBalanceService;
+        private final OutboxService outboxService;
+        private final FxService fxService;
+        private final SplitCalculator splitCalculator;
+        private final ObjectMapper objectMapper;
 
         @Transactional
         public ExpenseResponse addExpense(CreateExpenseRequest request) {
-                Group group = groupService.findById(request.getGroupId());
-                User paidBy = userService.findById(request.getPaidBy());
-                User createdBy = userService.findById(request.getCreatedBy());
+                Group group = groupService.lockForWrite(request.getGroupId());
+                userService.findRowById(request.getCreatedBy());
+                User createdBy = userService.getReference(request.getCreatedBy());
+                String currency = fxService.resolveCurrency(request.getCurrency(), group.getCurrency());
+                SplitCalculator.Allocation allocation = splitCalculator.calculate(request, currency);
+
+                // One query for the users and one for their memberships, however many splits there are
+                Set<UUID> involved = new LinkedHashSet<>(Arrays.asList(allocation.userIds()));
+                involved.add(request.getPaidBy());
+                Map<UUID, User> users = userService.findAllById(involved);
+                groupService.requireMembers(group.getId(), involved);
+                User paidBy = users.get(request.getPaidBy());
 
                 Expense expense = Expense.builder()
                                 .group(group)
                                 .description(request.getDescription())
                                 .amount(request.getAmount())
+                                .currency(currency)
                                 .paidBy(paidBy)
                                 .createdBy(createdBy)
                                 .build();
 
                 expense = expenseRepository.save(expense);
 
-                for (var splitReq : request.getSplits()) {
-                        User user = userService.findById(splitReq.getUserId());
-                        ExpenseSplit split = ExpenseSplit.builder()
+                List<ExpenseSplit> splits = new ArrayList<>(allocation.size());
+                for (int i = 0; i < allocation.size(); i++) {
+                        splits.add(ExpenseSplit.builder()
                                         .expense(expense)
-                                        .user(user)
-                                        .owedAmount(splitReq.getOwedAmount())
-                                        .build();
-                        expenseSplitRepository.save(split);
+                                        .user(users.get(allocation.userId(i)))
+                                        .owedAmount(allocation.owedAmount(i))
+                                        .build());
                 }
+                // Written as JDBC batches (hibernate.jdbc.batch_size)
+                expenseSplitRepository.saveAll(splits);
+                balanceLedgerService.recordExpense(expense, splits);
+                pairBalanceService.recordExpense(expense, splits);
+                outboxService.expenseAdded(expense, splits);
 
-                return mapToResponse(expense);
+                ExpenseRow row = new ExpenseRow(expense.getId(), expense.getDescription(), expense.getAmount(),
+                                expense.getCurrency(), paidBy.getId(), paidBy.getName(), expense.getCreatedAt());
+                return mapToResponse(row, splits.stream()
+                                .map(split -> new ExpenseSplitRow(row.id(), split.getUser().getId(),
+                                                split.getUser().getName(), split.getOwedAmount()))
+                                .toList());
         }
 
         @Transactional
         public void deleteExpense(UUID expenseId) {
+                UUID groupId = expenseRepository.findGroupIdById(expenseId)
+                                .orElseThrow(() -> new RuntimeException("Expense not found"));
+                // Read the expense only once the group is locked, so a settlement or another delete
+                // that committed while we waited is seen by the checks below
+                groupService.lockForWrite(groupId);
                 Expense expense = expenseRepository.findById(expenseId)
                                 .orElseThrow(() -> new RuntimeException("Expense not found"));
 
+                if (Boolean.TRUE.equals(expense.getIsDeleted())) {
+                        throw new SplitwiseException("Expense is already deleted");
+                }
                 if (settlementRepository.existsByGroup(expense.getGroup())) {
-                        throw new RuntimeException("Cannot delete expense: settlements exist in this group");
+                        throw new SplitwiseException("Cannot delete expense: settlements exist in this group");
                 }
 
                 expense.setIsDeleted(true);
                 expenseRepository.save(expense);
+                List<ExpenseSplit> splits = expenseSplitRepository.findByExpense(expense);
+                balanceLedgerService.reverseExpense(expense, splits);
+                pairBalanceService.reverseExpense(expense, splits);
+                outboxService.expenseDeleted(expense, splits);
         }
 
+        @Transactional(readOnly = true)
         public List<ExpenseResponse> getGroupExpenses(UUID groupId) {
-                Group group = groupService.findById(groupId);
-                return expenseRepository.findByGroupAndIsDeletedFalse(group).stream()
-                                .map(this::mapToResponse)
+                groupService.findRowById(groupId);
+                List<ExpenseRow> expenses = expenseRepository.findActiveRowsByGroupId(groupId);
+                Map<UUID, List<ExpenseSplitRow>> splitsByExpense = expenseSplitRepository
+                                .findActiveRowsByGroupId(groupId).stream()
+                                .collect(Collectors.groupingBy(ExpenseSplitRow::expenseId));
+
+                return expenses.stream()
+                                .map(expense -> mapToResponse(expense,
+                                                splitsByExpense.getOrDefault(expense.id(), List.of())))
+                                .collect(Collectors.toList());
+        }
+
+        @Transactional(readOnly = true)
+        public PageResponse<ExpenseResponse> getGroupExpensePage(UUID groupId, String cursor, Integer limit) {
+                groupService.findRowById(groupId);
+                int pageSize = KeysetCursor.clampLimit(limit);
+                // Ask for one extra row to learn whether another page follows
+                Pageable pageable = PageRequest.of(0, pageSize + 1);
+                List<ExpenseRow> expenses;
+                if (cursor == null || cursor.isBlank()) {
+                        expenses = expenseRepository.findFirstPageByGroupId(groupId, pageable);
+                } else {
+                        KeysetCursor after = KeysetCursor.decode(cursor);
+                        expenses = expenseRepository.findPageByGroupIdAfter(groupId, after.createdAt(), after.id(),
+                                        pageable);
+                }
+
+                boolean hasMore = expenses.size() > pageSize;
+                if (hasMore) {
+                        expenses = expenses.subList(0, pageSize);
+                }
+                ExpenseRow last = expenses.isEmpty() ? null : expenses.get(expenses.size() - 1);
+
+                return PageResponse.<ExpenseResponse>builder()
+                                .items(mapToResponses(expenses))
+                                .nextCursor(hasMore ? new KeysetCursor(last.createdAt(), last.id()).encode() : null)
+                                .build();
+        }
+
+        /**
+         * Writes every active expense of the group to {@code out} as NDJSON, reading
+         * from a database cursor so the full history is never held in memory.
+         */
+        @Transactional(readOnly = true)
+        public void exportGroupExpenses(UUID groupId, OutputStream out) throws IOException {
+                groupService.findRowById(groupId);
+                List<ExpenseRow> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+                try (Stream<ExpenseRow> expenses = expenseRepository.streamActiveRowsByGroupId(groupId)) {
+                        Iterator<ExpenseRow> iterator = expenses.iterator();
+                        while (iterator.hasNext()) {
+                                batch.add(iterator.next());
+                                if (batch.size() == EXPORT_BATCH_SIZE || !iterator.hasNext()) {
+                                        for (ExpenseResponse response : mapToResponses(batch)) {
+                                                out.write(objectMapper.writeValueAsBytes(response));
+                                                out.write('\n');
+                                        }
+                                        out.flush();
+                                        batch.clear();
+                                }
+                        }
+                }
+        }
+
+        private List<ExpenseResponse> mapToResponses(List<ExpenseRow> expenses) {
+                if (expenses.isEmpty()) {
+                        return List.of();
+                }
+                List<UUID> expenseIds = expenses.stream().map(ExpenseRow::id).toList();
+                Map<UUID, List<ExpenseSplitRow>> splitsByExpense = expenseSplitRepository
+                                .findRowsByExpenseIds(expenseIds).stream()
+                                .collect(Collectors.groupingBy(ExpenseSplitRow::expenseId));
+                return expenses.stream()
+                                .map(expense -> mapToResponse(expense,
+                                                splitsByExpense.getOrDefault(expense.id(), List.of())))
                                 .collect(Collectors.toList());
         }
 
-        private ExpenseResponse mapToResponse(Expense expense) {
-                List<ExpenseSplitResponse> splits = expenseSplitRepository.findByExpense(expense).stream()
+        private ExpenseResponse mapToResponse(ExpenseRow expense, List<ExpenseSplitRow> expenseSplits) {
+                List<ExpenseSplitResponse> splits = expenseSplits.stream()
                                 .map(split -> ExpenseSplitResponse.builder()
-                                                .userId(split.getUser().getId())
-                                                .userName(split.getUser().getName())
-                                                .owedAmount(split.getOwedAmount())
+                                                .userId(split.userId())
+                                                .userName(split.userName())
+                                                .owedAmount(split.owedAmount())
                                                 .build())
                                 .collect(Collectors.toList());
 
                 return ExpenseResponse.builder()
-                                .id(expense.getId())
-                                .description(expense.getDescription())
-                                .amount(expense.getAmount())
-                                .paidBy(expense.getPaidBy().getId())
-                                .paidByName(expense.getPaidBy().getName())
-                                .createdAt(expense.getCreatedAt())
+                                .id(expense.id())
+                                .description(expense.description())
+                                .amount(expense.amount())
+                                .currency(expense.currency())
+                                .paidBy(expense.paidById())
+                                .paidByName(expense.paidByName())
+                                .createdAt(expense.createdAt())
                                 .splits(splits)
                                 .build();
         }
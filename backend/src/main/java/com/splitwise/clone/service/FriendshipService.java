@@ -0,0 +1,130 @@
+package com.splitwise.clone.service;
+
+import com.splitwise.clone.dto.FriendSuggestionResponse;
+import com.splitwise.clone.dto.PageResponse;
+import com.splitwise.clone.dto.UserResponse;
+import com.splitwise.clone.exception.SplitwiseException;
+import com.splitwise.clone.repository.FriendshipRepository;
+import com.splitwise.clone.repository.projection.UserSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintains the {@code friendships} edge table as group memberships are added, so
+ * friend lists never have to self-join {@code group_members}.
+ */
+@Service
+@RequiredArgsConstructor
+public class FriendshipService {
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final FriendshipRepository friendshipRepository;
+
+    /**
+     * Records that {@code userId} now shares a group with each of {@code memberIds}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addMember(UUID userId, Collection<UUID> memberIds) {
+        List<UUID> from = new ArrayList<>();
+        List<UUID> to = new ArrayList<>();
+        for (UUID memberId : new LinkedHashSet<>(memberIds)) {
+            if (!memberId.equals(userId)) {
+                from.add(userId);
+                to.add(memberId);
+                from.add(memberId);
+                to.add(userId);
+            }
+        }
+        addSharedGroup(from, to);
+    }
+
+    /**
+     * Records that all of {@code memberIds} share a newly created group.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addGroup(Collection<UUID> memberIds) {
+        List<UUID> members = new ArrayList<>(new LinkedHashSet<>(memberIds));
+        List<UUID> from = new ArrayList<>();
+        List<UUID> to = new ArrayList<>();
+        for (UUID user : members) {
+            for (UUID friend : members) {
+                if (!user.equals(friend)) {
+                    from.add(user);
+                    to.add(friend);
+                }
+            }
+        }
+        addSharedGroup(from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserResponse> getFriends(UUID userId) {
+        return friendshipRepository.findFriendsByUserId(userId).stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<UserResponse> getFriendPage(UUID userId, String cursor, Integer limit) {
+        int pageSize = KeysetCursor.clampLimit(limit);
+        // Ask for one extra row to learn whether another page follows
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<UserSummary> friends = cursor == null || cursor.isBlank()
+                ? friendshipRepository.findFirstFriendPage(userId, pageable)
+                : friendshipRepository.findFriendPageAfter(userId, decodeCursor(cursor), pageable);
+
+        boolean hasMore = friends.size() > pageSize;
+        if (hasMore) {
+            friends = friends.subList(0, pageSize);
+        }
+        return PageResponse.<UserResponse>builder()
+                .items(friends.stream().map(this::mapToResponse).toList())
+                .nextCursor(hasMore ? friends.get(friends.size() - 1).getId().toString() : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<FriendSuggestionResponse> getSuggestions(UUID userId, Integer limit) {
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return friendshipRepository.findSuggestions(userId, size).stream()
+                .map(suggestion -> FriendSuggestionResponse.builder()
+                        .id(suggestion.getId())
+                        .name(suggestion.getName())
+                        .email(suggestion.getEmail())
+                        .mutualFriends(suggestion.getMutualFriends())
+                        .build())
+                .toList();
+    }
+
+    private void addSharedGroup(List<UUID> from, List<UUID> to) {
+        if (!from.isEmpty()) {
+            friendshipRepository.addSharedGroup(from.toArray(UUID[]::new), to.toArray(UUID[]::new));
+        }
+    }
+
+    private static UUID decodeCursor(String cursor) {
+        try {
+            return UUID.fromString(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new SplitwiseException("Invalid cursor");
+        }
+    }
+
+    private UserResponse mapToResponse(UserSummary user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+}
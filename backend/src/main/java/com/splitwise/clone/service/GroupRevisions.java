@@ -0,0 +1,24 @@
+package com.splitwise.clone.service;
+
+import com.splitwise.clone.repository.GroupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Revision of a group's balances: the persisted {@code groups.version}, which every
+ * write that changes them bumps when it takes the group lock
+ * ({@link GroupService#lockForWrite}). Being stored with the data, it also moves for
+ * writes handled by other instances. Cached read models compare revisions instead of
+ * tracking individual writes.
+ */
+@Component
+@RequiredArgsConstructor
+public class GroupRevisions {
+    private final GroupRepository groupRepository;
+
+    public long current(UUID groupId) {
+        return groupRepository.findVersionById(groupId).orElse(0L);
+    }
+}
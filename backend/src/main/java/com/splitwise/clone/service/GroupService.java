@@ -1,18 +1,30 @@
 package com.splitwise.clone.service;
 
+import com.splitwise.clone.config.CacheConfig;
 import com.splitwise.clone.dto.CreateGroupRequest;
 import com.splitwise.clone.dto.GroupResponse;
 import com.splitwise.clone.dto.UserResponse;
 import com.splitwise.clone.entity.Group;
 import com.splitwise.clone.entity.GroupMember;
 import com.splitwise.clone.entity.User;
+import com.splitwise.clone.exception.SplitwiseException;
 import com.splitwise.clone.repository.GroupMemberRepository;
 import com.splitwise.clone.repository.GroupRepository;
+import com.splitwise.clone.repository.projection.GroupRow;
+import com.splitwise.clone.repository.projection.MemberRow;
+import com.splitwise.clone.service.fx.FxService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,13 +34,21 @@ public class GroupService {
         private final GroupRepository groupRepository;
         private final GroupMemberRepository groupMemberRepository;
         private final UserService userService;
+        private final FriendshipService friendshipService;
+        private final OutboxService outboxService;
+        private final FxService fxService;
+
+        @Value("${splitwise.money.currency:INR}")
+        private String defaultCurrency;
 
         @Transactional
         public GroupResponse createGroup(CreateGroupRequest request) {
-                User creator = userService.findById(request.getCreatedBy());
+                userService.findRowById(request.getCreatedBy());
+                User creator = userService.getReference(request.getCreatedBy());
 
                 Group group = Group.builder()
                                 .name(request.getName())
+                                .currency(fxService.resolveCurrency(request.getCurrency(), defaultCurrency))
                                 .createdBy(creator)
                                 .inviteToken(UUID.randomUUID().toString())
                                 .build();
@@ -43,18 +63,24 @@ public class GroupService {
                 groupMemberRepository.save(creatorMember);
 
                 // Add initial members if any
+                List<UUID> memberIds = new ArrayList<>();
+                memberIds.add(request.getCreatedBy());
                 if (request.getInitialMembers() != null) {
                         for (UUID memberId : request.getInitialMembers()) {
                                 if (memberId.equals(request.getCreatedBy()))
                                         continue; // Skip creator as already added
-                                User friend = userService.findById(memberId);
+                                userService.findRowById(memberId);
+                                User friend = userService.getReference(memberId);
                                 GroupMember friendMember = GroupMember.builder()
                                                 .group(group)
                                                 .user(friend)
                                                 .build();
                                 groupMemberRepository.save(friendMember);
+                                memberIds.add(memberId);
                         }
                 }
+                friendshipService.addGroup(memberIds);
+                outboxService.membersJoined(group.getId(), memberIds);
 
                 return mapToResponse(group);
         }
@@ -63,47 +89,103 @@ public class GroupService {
         public void joinGroup(String inviteToken, UUID userId) {
                 Group group = groupRepository.findByInviteToken(inviteToken)
                                 .orElseThrow(() -> new RuntimeException("Invalid invite token"));
-                User user = userService.findById(userId);
+                // Serializes joins with other writes; the version bump also shows the new member
+                // in the balance snapshot
+                lockForWrite(group.getId());
+                userService.findRowById(userId);
+                User user = userService.getReference(userId);
 
                 if (groupMemberRepository.existsByGroupAndUser(group, user)) {
                         throw new RuntimeException("User already in group");
                 }
+                List<UUID> memberIds = groupMemberRepository.findMemberRowsByGroupId(group.getId()).stream()
+                                .map(MemberRow::userId)
+                                .toList();
 
                 GroupMember member = GroupMember.builder()
                                 .group(group)
                                 .user(user)
                                 .build();
                 groupMemberRepository.save(member);
+                friendshipService.addMember(userId, memberIds);
+                outboxService.membersJoined(group.getId(), List.of(userId));
         }
 
+        @Transactional(readOnly = true)
         public List<GroupResponse> getUserGroups(UUID userId) {
-                User user = userService.findById(userId);
-                return groupMemberRepository.findByUser(user).stream()
-                                .map(member -> mapToResponse(member.getGroup()))
+                userService.findRowById(userId);
+                return groupMemberRepository.findGroupRowsByUserId(userId).stream()
+                                .map(this::mapToResponse)
                                 .collect(Collectors.toList());
         }
 
-        public Group findById(UUID id) {
+        @Cacheable(cacheNames = CacheConfig.GROUPS, key = "#id")
+        public GroupRow findRowById(UUID id) {
+                return groupRepository.findRowById(id)
+                                .orElseThrow(() -> new RuntimeException("Group not found"));
+        }
+
+        /**
+         * Association target for a group already checked with {@link #findRowById}; issues no query.
+         */
+        public Group getReference(UUID id) {
+                return groupRepository.getReferenceById(id);
+        }
+
+        /**
+         * Locks the group row until the surrounding transaction ends, so writes to one
+         * group run one at a time while different groups are written in parallel.
+         */
+        @Transactional(propagation = Propagation.MANDATORY)
+        public Group lockForWrite(UUID id) {
+                if (groupRepository.lockForWrite(id) == 0) {
+                        throw new RuntimeException("Group not found");
+                }
                 return groupRepository.findById(id)
                                 .orElseThrow(() -> new RuntimeException("Group not found"));
         }
 
+        /**
+         * Fails unless every user in {@code userIds} belongs to the group, with one query.
+         */
+        public void requireMembers(UUID groupId, Collection<UUID> userIds) {
+                Set<UUID> members = new HashSet<>(groupMemberRepository.findMemberIdsAmong(groupId, userIds));
+                for (UUID userId : userIds) {
+                        if (!members.contains(userId)) {
+                                throw new SplitwiseException("User " + userId + " is not a member of this group");
+                        }
+                }
+        }
+
         private GroupResponse mapToResponse(Group group) {
                 return GroupResponse.builder()
                                 .id(group.getId())
                                 .name(group.getName())
+                                .currency(group.getCurrency())
                                 .inviteToken(group.getInviteToken())
                                 .createdBy(group.getCreatedBy().getId())
                                 .createdAt(group.getCreatedAt())
                                 .build();
         }
 
+        private GroupResponse mapToResponse(GroupRow group) {
+                return GroupResponse.builder()
+                                .id(group.id())
+                                .name(group.name())
+                                .currency(group.currency())
+                                .inviteToken(group.inviteToken())
+                                .createdBy(group.createdById())
+                                .createdAt(group.createdAt())
+                                .build();
+        }
+
+        @Transactional(readOnly = true)
         public List<UserResponse> getGroupMembers(UUID groupId) {
-                return groupMemberRepository.findByGroupId(groupId).stream()
+                return groupMemberRepository.findMemberRowsByGroupId(groupId).stream()
                                 .map(member -> UserResponse.builder()
-                                                .id(member.getUser().getId())
-                                                .name(member.getUser().getName())
-                                                .email(member.getUser().getEmail())
+                                                .id(member.userId())
+                                                .name(member.name())
+                                                .email(member.email())
                                                 .build())
                                 .toList();
         }
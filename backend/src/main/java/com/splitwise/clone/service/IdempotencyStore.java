@@ -0,0 +1,129 @@
+package com.splitwise.clone.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.splitwise.clone.exception.SplitwiseException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response of each write sent with an {@code Idempotency-Key} header for
+ * a bounded time, so a client retrying after a lost response gets the original result
+ * instead of a second row. A duplicate that arrives while the first request is still
+ * running waits for it. Failed writes are not remembered and may be retried. Keys are
+ * scoped to the calling user and endpoint, so two users picking the same key do not
+ * collide. The store is bounded by the memory its entries take, not their count, and
+ * lives in this process only.
+ */
+@Component
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Outcome> completed;
+    private final Map<Key, Outcome> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${splitwise.idempotency.ttl:24h}") Duration ttl,
+            @Value("${splitwise.idempotency.max-memory:64MB}") DataSize maxMemory) {
+        this.objectMapper = objectMapper;
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxMemory.toBytes())
+                .weigher(this::weigh)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotencyKeys");
+    }
+
+    /**
+     * Runs {@code write} unless {@code userId} already used {@code key} in {@code scope},
+     * in which case the first response is returned. Without a key the write simply runs.
+     * Reusing a key for a request that differs from the first is rejected.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(UUID userId, String scope, String key, Object request, Supplier<T> write) {
+        if (key == null) {
+            return write.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new SplitwiseException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        Key cacheKey = new Key(userId, scope, key);
+        Outcome done = completed.getIfPresent(cacheKey);
+        if (done != null) {
+            return (T) done.replay(request);
+        }
+
+        Outcome mine = new Outcome(request, new CompletableFuture<>());
+        Outcome running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            return (T) running.replay(request);
+        }
+        try {
+            // The first request may have finished between the lookup above and claiming the key
+            done = completed.getIfPresent(cacheKey);
+            if (done != null) {
+                T response = (T) done.replay(request);
+                mine.response().complete(response);
+                return response;
+            }
+            T response = write.get();
+            mine.response().complete(response);
+            completed.put(cacheKey, mine);
+            return response;
+        } catch (RuntimeException ex) {
+            mine.response().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    // Approximate bytes an entry holds: the key, the request kept for comparison and the response
+    private int weigh(Key key, Outcome outcome) {
+        try {
+            long bytes = key.key().length()
+                    + objectMapper.writeValueAsBytes(outcome.request()).length
+                    + objectMapper.writeValueAsBytes(outcome.response().join()).length;
+            return (int) Math.min(bytes, Integer.MAX_VALUE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not size idempotent response", ex);
+        }
+    }
+
+    private record Key(UUID userId, String scope, String key) {
+    }
+
+    private record Outcome(Object request, CompletableFuture<Object> response) {
+
+        Object replay(Object retried) {
+            if (!request.equals(retried)) {
+                throw new SplitwiseException(HEADER + " has already been used for a different request");
+            }
+            try {
+                return response.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.splitwise.clone.service;
+
+import com.splitwise.clone.entity.OutboxEvent;
+import com.splitwise.clone.event.DomainEvent;
+import com.splitwise.clone.event.DomainEventSubscriber;
+import com.splitwise.clone.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the outbox into the {@link DomainEventSubscriber} beans. Each batch is claimed
+ * with {@code FOR UPDATE SKIP LOCKED} and marked processed in the same transaction, so
+ * several instances can run side by side and a crash before commit only means the batch
+ * is delivered again.
+ * <p>
+ * Writers never wait on delivery. Draining happens on a single thread, at most
+ * {@code max-batches-per-drain} batches at a time, so a burst of writes queues up in the
+ * table instead of in memory and subscribers are never called faster than they return.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<DomainEventSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer lag;
+    private final ThreadPoolTaskScheduler scheduler;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerDrain;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+            List<DomainEventSubscriber> subscribers,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${splitwise.outbox.enabled:true}") boolean enabled,
+            @Value("${splitwise.outbox.batch-size:100}") int batchSize,
+            @Value("${splitwise.outbox.max-batches-per-drain:20}") int maxBatchesPerDrain,
+            @Value("${splitwise.outbox.poll-interval:1s}") Duration pollInterval,
+            @Value("${splitwise.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${splitwise.outbox.retention:7d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.subscribers = subscribers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.lag = meterRegistry.timer("splitwise.outbox.lag");
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerDrain = maxBatchesPerDrain;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+        // Own thread rather than the shared @Scheduled one, so delivery never waits behind the
+        // nightly reconciliation and two drains can never overlap
+        this.scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("outbox-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        scheduler.initialize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Outbox dispatcher is disabled; events accumulate in outbox_events");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::drain, pollInterval);
+        scheduler.scheduleAtFixedRate(this::purge, Duration.ofHours(1));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEventsWritten(OutboxService.EventsWritten written) {
+        // A burst of commits coalesces into a single extra drain
+        if (enabled && wakeUpPending.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::drain);
+            } catch (TaskRejectedException ex) {
+                wakeUpPending.set(false); // Shutting down; the next start picks the events up
+            }
+        }
+    }
+
+    /**
+     * Delivers due events until the outbox is empty or the per-drain cap is reached.
+     * Returns the number of events handled, including ones scheduled for a retry.
+     */
+    public int drain() {
+        wakeUpPending.set(false);
+        int handled = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerDrain; i++) {
+                Integer count = transactionTemplate.execute(status -> dispatchBatch());
+                handled += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // Must not escape: a periodic task that throws is never scheduled again
+            log.warn("Outbox drain failed: {}", ex.getMessage());
+        }
+        return handled;
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.lockDueBatch(now, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<DomainEvent> events = batch.stream()
+                .map(event -> new DomainEvent(event.getId(), event.getType(), event.getGroupId(),
+                        event.getAggregateId(), event.getPayload(), event.getCreatedAt(), event.getAttempts() + 1))
+                .toList();
+
+        Map<UUID, String> failures = new HashMap<>();
+        for (DomainEventSubscriber subscriber : subscribers) {
+            deliver(subscriber, events, failures);
+        }
+
+        for (OutboxEvent event : batch) {
+            String error = failures.get(event.getId());
+            if (error == null) {
+                event.setProcessedAt(now);
+                lag.record(Duration.between(event.getCreatedAt(), now));
+                meterRegistry.counter("splitwise.outbox.events", "outcome", "delivered").increment();
+                continue;
+            }
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (attempts >= maxAttempts) {
+                event.setProcessedAt(now);
+                log.error("Giving up on outbox event {} ({}) after {} attempts: {}", event.getId(), event.getType(),
+                        attempts, error);
+                meterRegistry.counter("splitwise.outbox.events", "outcome", "dead").increment();
+            } else {
+                event.setAvailableAt(now.plus(backoff(attempts)));
+                meterRegistry.counter("splitwise.outbox.events", "outcome", "retried").increment();
+            }
+        }
+        return batch.size();
+    }
+
+    private void deliver(DomainEventSubscriber subscriber, List<DomainEvent> events, Map<UUID, String> failures) {
+        List<DomainEvent> accepted = events.stream()
+                .filter(event -> subscriber.accepts(event.type()))
+                .toList();
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            subscriber.onEvents(accepted);
+        } catch (RuntimeException batchFailure) {
+            // Retry one by one so a single bad event does not hold back the rest of the batch
+            for (DomainEvent event : accepted) {
+                try {
+                    subscriber.onEvents(List.of(event));
+                } catch (RuntimeException ex) {
+                    String error = subscriber.getClass().getSimpleName() + ": " + ex;
+                    failures.merge(event.id(), error, (first, second) -> first + "; " + second);
+                }
+            }
+        }
+    }
+
+    private static Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(1L << Math.min(attempts - 1, 16));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private void purge() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention)));
+            if (deleted > 0) {
+                log.info("Purged {} processed outbox events", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Outbox purge failed: {}", ex.getMessage());
+        }
+    }
+}
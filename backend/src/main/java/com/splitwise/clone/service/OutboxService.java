@@ -0,0 +1,105 @@
+package com.splitwise.clone.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.clone.entity.Expense;
+import com.splitwise.clone.entity.ExpenseSplit;
+import com.splitwise.clone.entity.OutboxEvent;
+import com.splitwise.clone.entity.Settlement;
+import com.splitwise.clone.enums.DomainEventType;
+import com.splitwise.clone.event.ExpensePayload;
+import com.splitwise.clone.event.MemberJoinedPayload;
+import com.splitwise.clone.event.SettlementPayload;
+import com.splitwise.clone.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes domain events to the transactional outbox. Every write must join the
+ * transaction of the change it describes, so an event exists if and only if the
+ * change committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Published inside the writing transaction; the dispatcher listens for it after commit
+     * to deliver without waiting for its next poll.
+     */
+    public record EventsWritten(int count) {
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void expenseAdded(Expense expense, List<ExpenseSplit> splits) {
+        write(List.of(expenseEvent(DomainEventType.EXPENSE_ADDED, expense, splits)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void expensesAdded(Map<Expense, List<ExpenseSplit>> splitsByExpense) {
+        List<OutboxEvent> events = new ArrayList<>(splitsByExpense.size());
+        splitsByExpense.forEach((expense, splits) -> events.add(
+                expenseEvent(DomainEventType.EXPENSE_ADDED, expense, splits)));
+        write(events);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void expenseDeleted(Expense expense, List<ExpenseSplit> splits) {
+        write(List.of(expenseEvent(DomainEventType.EXPENSE_DELETED, expense, splits)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void settlementCreated(Settlement settlement) {
+        UUID groupId = settlement.getGroup().getId();
+        write(List.of(event(DomainEventType.SETTLEMENT_CREATED, groupId, settlement.getId(),
+                new SettlementPayload(settlement.getId(), groupId, settlement.getFromUser().getId(),
+                        settlement.getToUser().getId(), settlement.getAmount(), settlement.getCurrency()))));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void membersJoined(UUID groupId, Collection<UUID> userIds) {
+        write(userIds.stream()
+                .map(userId -> event(DomainEventType.MEMBER_JOINED, groupId, userId,
+                        new MemberJoinedPayload(groupId, userId)))
+                .toList());
+    }
+
+    private OutboxEvent expenseEvent(DomainEventType type, Expense expense, List<ExpenseSplit> splits) {
+        UUID groupId = expense.getGroup().getId();
+        return event(type, groupId, expense.getId(), new ExpensePayload(expense.getId(), groupId,
+                expense.getDescription(), expense.getAmount(), expense.getCurrency(), expense.getPaidBy().getId(),
+                splits.stream()
+                        .map(split -> new ExpensePayload.Split(split.getUser().getId(), split.getOwedAmount()))
+                        .toList()));
+    }
+
+    private OutboxEvent event(DomainEventType type, UUID groupId, UUID aggregateId, Object payload) {
+        return OutboxEvent.builder()
+                .type(type)
+                .groupId(groupId)
+                .aggregateId(aggregateId)
+                .payload(objectMapper.valueToTree(payload).toString())
+                .availableAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void write(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        outboxEventRepository.saveAll(events);
+        applicationEventPublisher.publishEvent(new EventsWritten(events.size()));
+    }
+}
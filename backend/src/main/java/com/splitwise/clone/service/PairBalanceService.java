@@ -0,0 +1,155 @@
+package com.splitwise.clone.service;
+
+import com.splitwise.clone.dto.CounterpartyBalanceResponse;
+import com.splitwise.clone.dto.UserBalanceResponse;
+import com.splitwise.clone.entity.Expense;
+import com.splitwise.clone.entity.ExpenseSplit;
+import com.splitwise.clone.entity.Settlement;
+import com.splitwise.clone.repository.PairBalanceRepository;
+import com.splitwise.clone.repository.projection.CounterpartyAmount;
+import com.splitwise.clone.service.fx.FxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains {@code pair_balances}, the cross-group "who owes whom" index, per currency.
+ * Like {@link BalanceLedgerService}, every write joins the transaction of the expense
+ * or settlement it mirrors.
+ */
+@Service
+@RequiredArgsConstructor
+public class PairBalanceService {
+    private final PairBalanceRepository pairBalanceRepository;
+    private final UserService userService;
+    private final FxService fxService;
+
+    @Value("${splitwise.money.currency:INR}")
+    private String currency;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpense(Expense expense, List<ExpenseSplit> splits) {
+        Map<Pair, BigDecimal> deltas = new HashMap<>();
+        addExpense(deltas, expense, splits, false);
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseExpense(Expense expense, List<ExpenseSplit> splits) {
+        Map<Pair, BigDecimal> deltas = new HashMap<>();
+        addExpense(deltas, expense, splits, true);
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpenses(Map<Expense, List<ExpenseSplit>> splitsByExpense) {
+        Map<Pair, BigDecimal> deltas = new HashMap<>();
+        splitsByExpense.forEach((expense, splits) -> addExpense(deltas, expense, splits, false));
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSettlement(Settlement settlement) {
+        Map<Pair, BigDecimal> deltas = new HashMap<>();
+        // Paying back moves the debt towards the payer
+        addDebt(deltas, settlement.getToUser().getId(), settlement.getFromUser().getId(), settlement.getCurrency(),
+                settlement.getAmount());
+        apply(deltas);
+    }
+
+    /**
+     * The user's position across all groups in {@code splitwise.money.currency}; debts in
+     * other currencies are converted at today's rates.
+     */
+    @Transactional(readOnly = true)
+    public UserBalanceResponse getUserBalance(UUID userId) {
+        userService.findRowById(userId);
+        LocalDate today = LocalDate.now();
+
+        BigDecimal net = BigDecimal.ZERO;
+        Map<UUID, CounterpartyBalanceResponse> byCounterparty = new HashMap<>();
+        for (CounterpartyAmount row : pairBalanceRepository.findCounterpartiesByUserId(userId)) {
+            BigDecimal amount = fxService.convert(row.amount(), row.currency(), currency, today);
+            net = net.add(amount);
+            CounterpartyBalanceResponse counterparty = byCounterparty.computeIfAbsent(row.counterpartyId(),
+                    id -> CounterpartyBalanceResponse.builder()
+                            .userId(id)
+                            .userName(row.counterpartyName())
+                            .amount(BigDecimal.ZERO)
+                            .build());
+            counterparty.setAmount(counterparty.getAmount().add(amount));
+        }
+        return UserBalanceResponse.builder()
+                .userId(userId)
+                .netBalance(net)
+                .currency(currency)
+                .counterparties(byCounterparty.values().stream()
+                        .filter(counterparty -> counterparty.getAmount().signum() != 0)
+                        .sorted(Comparator.comparing((CounterpartyBalanceResponse counterparty) ->
+                                counterparty.getAmount().abs()).reversed())
+                        .toList())
+                .build();
+    }
+
+    private static void addExpense(Map<Pair, BigDecimal> deltas, Expense expense, List<ExpenseSplit> splits,
+            boolean reverse) {
+        UUID payerId = expense.getPaidBy().getId();
+        for (ExpenseSplit split : splits) {
+            BigDecimal owed = reverse ? split.getOwedAmount().negate() : split.getOwedAmount();
+            addDebt(deltas, split.getUser().getId(), payerId, expense.getCurrency(), owed);
+        }
+    }
+
+    private static void addDebt(Map<Pair, BigDecimal> deltas, UUID debtorId, UUID creditorId, String currency,
+            BigDecimal amount) {
+        if (debtorId.equals(creditorId)) {
+            return;
+        }
+        deltas.merge(new Pair(creditorId, debtorId, currency), amount, BigDecimal::add);
+        deltas.merge(new Pair(debtorId, creditorId, currency), amount.negate(), BigDecimal::add);
+    }
+
+    private void apply(Map<Pair, BigDecimal> deltas) {
+        // Sorted so concurrent writers touch shared rows in the same order
+        List<Map.Entry<Pair, BigDecimal>> entries = deltas.entrySet().stream()
+                .filter(entry -> entry.getValue().signum() != 0)
+                .sorted(Map.Entry.comparingByKey())
+                .toList();
+        if (entries.isEmpty()) {
+            return;
+        }
+        UUID[] userIds = new UUID[entries.size()];
+        UUID[] counterpartyIds = new UUID[entries.size()];
+        String[] currencies = new String[entries.size()];
+        BigDecimal[] amounts = new BigDecimal[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            userIds[i] = entries.get(i).getKey().userId();
+            counterpartyIds[i] = entries.get(i).getKey().counterpartyId();
+            currencies[i] = entries.get(i).getKey().currency();
+            amounts[i] = entries.get(i).getValue();
+        }
+        pairBalanceRepository.addToBalances(userIds, counterpartyIds, currencies, amounts);
+    }
+
+    private record Pair(UUID userId, UUID counterpartyId, String currency) implements Comparable<Pair> {
+        @Override
+        public int compareTo(Pair other) {
+            int byUser = userId.compareTo(other.userId);
+            if (byUser != 0) {
+                return byUser;
+            }
+            int byCounterparty = counterpartyId.compareTo(other.counterpartyId);
+            return byCounterparty != 0 ? byCounterparty : currency.compareTo(other.currency);
+        }
+    }
+}
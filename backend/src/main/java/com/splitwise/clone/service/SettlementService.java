@@ -1,65 +1,138 @@
 package com.splitwise.clone.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.splitwise.clone.dto.CreateSettlementRequest;
+import com.splitwise.clone.dto.PageResponse;
 import com.splitwise.clone.dto.SettlementResponse;
 import com.splitwise.clone.entity.Group;
 import com.splitwise.clone.entity.Settlement;
-import com.splitwise.clone.entity.User;
 import com.splitwise.clone.enums.SettlementStatus;
 import com.splitwise.clone.repository.SettlementRepository;
+import com.splitwise.clone.repository.projection.SettlementRow;
+import com.splitwise.clone.repository.projection.UserRow;
+import com.splitwise.clone.service.fx.FxService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class SettlementService {
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     private final SettlementRepository settlementRepository;
     private final GroupService groupService;
     private final UserService userService;
+    private final BalanceLedgerService balanceLedgerService;
+    private final PairBalanceService pairBalanceService;
+    private final OutboxService outboxService;
+    private final FxService fxService;
+    private final ObjectMapper objectMapper;
 
     @Transactional
     public SettlementResponse createSettlement(CreateSettlementRequest request) {
-        Group group = groupService.findById(request.getGroupId());
-        User fromUser = userService.findById(request.getFromUser());
-        User toUser = userService.findById(request.getToUser());
+        Group group = groupService.lockForWrite(request.getGroupId());
+        UserRow fromUser = userService.findRowById(request.getFromUser());
+        UserRow toUser = userService.findRowById(request.getToUser());
 
         Settlement settlement = Settlement.builder()
                 .group(group)
-                .fromUser(fromUser)
-                .toUser(toUser)
+                .fromUser(userService.getReference(fromUser.id()))
+                .toUser(userService.getReference(toUser.id()))
                 .amount(request.getAmount())
+                .currency(fxService.resolveCurrency(request.getCurrency(), group.getCurrency()))
                 .status(SettlementStatus.SETTLED) // For MVP, mark as settled immediately
                 .settledAt(LocalDateTime.now())
                 .build();
 
         settlement = settlementRepository.save(settlement);
-        return mapToResponse(settlement);
+        balanceLedgerService.recordSettlement(settlement);
+        pairBalanceService.recordSettlement(settlement);
+        outboxService.settlementCreated(settlement);
+        return mapToResponse(new SettlementRow(settlement.getId(), fromUser.id(), fromUser.name(),
+                toUser.id(), toUser.name(), settlement.getAmount(), settlement.getCurrency(), settlement.getStatus(),
+                settlement.getCreatedAt(), settlement.getSettledAt()));
     }
 
+    @Transactional(readOnly = true)
     public List<SettlementResponse> getGroupSettlements(UUID groupId) {
-        Group group = groupService.findById(groupId);
-        return settlementRepository.findByGroup(group).stream()
+        groupService.findRowById(groupId);
+        return settlementRepository.findRowsByGroupId(groupId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    private SettlementResponse mapToResponse(Settlement settlement) {
+    @Transactional(readOnly = true)
+    public PageResponse<SettlementResponse> getGroupSettlementPage(UUID groupId, String cursor, Integer limit) {
+        groupService.findRowById(groupId);
+        int pageSize = KeysetCursor.clampLimit(limit);
+        // Ask for one extra row to learn whether another page follows
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<SettlementRow> settlements;
+        if (cursor == null || cursor.isBlank()) {
+            settlements = settlementRepository.findFirstPageByGroupId(groupId, pageable);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            settlements = settlementRepository.findPageByGroupIdAfter(groupId, after.createdAt(), after.id(),
+                    pageable);
+        }
+
+        boolean hasMore = settlements.size() > pageSize;
+        if (hasMore) {
+            settlements = settlements.subList(0, pageSize);
+        }
+        SettlementRow last = settlements.isEmpty() ? null : settlements.get(settlements.size() - 1);
+
+        return PageResponse.<SettlementResponse>builder()
+                .items(settlements.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore ? new KeysetCursor(last.createdAt(), last.id()).encode() : null)
+                .build();
+    }
+
+    /**
+     * Writes every settlement of the group to {@code out} as NDJSON, reading from a
+     * database cursor so the full history is never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void exportGroupSettlements(UUID groupId, OutputStream out) throws IOException {
+        groupService.findRowById(groupId);
+        int written = 0;
+        try (Stream<SettlementRow> settlements = settlementRepository.streamRowsByGroupId(groupId)) {
+            Iterator<SettlementRow> iterator = settlements.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(mapToResponse(iterator.next())));
+                out.write('\n');
+                if (++written % EXPORT_BATCH_SIZE == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+    }
+
+    private SettlementResponse mapToResponse(SettlementRow settlement) {
         return SettlementResponse.builder()
-                .id(settlement.getId())
-                .fromUser(settlement.getFromUser().getId())
-                .fromUserName(settlement.getFromUser().getName())
-                .toUser(settlement.getToUser().getId())
-                .toUserName(settlement.getToUser().getName())
-                .amount(settlement.getAmount())
-                .status(settlement.getStatus())
-                .createdAt(settlement.getCreatedAt())
-                .settledAt(settlement.getSettledAt())
+                .id(settlement.id())
+                .fromUser(settlement.fromUserId())
+                .fromUserName(settlement.fromUserName())
+                .toUser(settlement.toUserId())
+                .toUserName(settlement.toUserName())
+                .amount(settlement.amount())
+                .currency(settlement.currency())
+                .status(settlement.status())
+                .createdAt(settlement.createdAt())
+                .settledAt(settlement.settledAt())
                 .build();
     }
 }
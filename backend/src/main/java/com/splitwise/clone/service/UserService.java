@@ -1,14 +1,19 @@
 package com.splitwise.clone.service;
 
+import com.splitwise.clone.config.CacheConfig;
 import com.splitwise.clone.dto.UserRequest;
 import com.splitwise.clone.dto.UserResponse;
 import com.splitwise.clone.entity.User;
 import com.splitwise.clone.repository.UserRepository;
+import com.splitwise.clone.repository.projection.UserRow;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,15 +43,30 @@ public class UserService {
         return mapToResponse(user);
     }
 
-    public User findById(UUID id) {
-        return userRepository.findById(id)
+    // Immutable rows, not entities: a cached entity would be shared across threads and detached
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
+    public UserRow findRowById(UUID id) {
+        return userRepository.findRowById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    public List<UserResponse> getFriends(UUID userId) {
-        return userRepository.findFriendsByUserId(userId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    /**
+     * Association target for a user already checked with {@link #findRowById}; issues no query.
+     */
+    public User getReference(UUID id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    /**
+     * Loads all {@code ids} in one query, failing like {@link #findRowById} if any is missing.
+     */
+    public Map<UUID, User> findAllById(Collection<UUID> ids) {
+        Map<UUID, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        if (!users.keySet().containsAll(ids)) {
+            throw new RuntimeException("User not found");
+        }
+        return users;
     }
 
     private UserResponse mapToResponse(User user) {
@@ -0,0 +1,54 @@
+package com.splitwise.clone.service.debt;
+
+/**
+ * Primitive helpers shared by the simplifiers, so sorting member indices by amount
+ * needs neither boxing nor comparators.
+ */
+final class DebtArrays {
+    private DebtArrays() {
+    }
+
+    /**
+     * Heap-sorts {@code idx[0..len)} by {@code amounts[idx]}, ties broken by index so
+     * the result is deterministic.
+     */
+    static void sortByAmount(int[] idx, int len, long[] amounts, boolean descending) {
+        for (int i = len / 2 - 1; i >= 0; i--) {
+            siftDown(idx, i, len, amounts, descending);
+        }
+        for (int end = len - 1; end > 0; end--) {
+            int tmp = idx[0];
+            idx[0] = idx[end];
+            idx[end] = tmp;
+            siftDown(idx, 0, end, amounts, descending);
+        }
+    }
+
+    private static void siftDown(int[] idx, int root, int len, long[] amounts, boolean descending) {
+        while (true) {
+            int child = 2 * root + 1;
+            if (child >= len) {
+                return;
+            }
+            if (child + 1 < len && before(idx[child], idx[child + 1], amounts, descending)) {
+                child++;
+            }
+            if (!before(idx[root], idx[child], amounts, descending)) {
+                return;
+            }
+            int tmp = idx[root];
+            idx[root] = idx[child];
+            idx[child] = tmp;
+            root = child;
+        }
+    }
+
+    // True when a sorts before b
+    private static boolean before(int a, int b, long[] amounts, boolean descending) {
+        long x = amounts[a], y = amounts[b];
+        if (x != y) {
+            return descending ? x > y : x < y;
+        }
+        return a < b;
+    }
+}
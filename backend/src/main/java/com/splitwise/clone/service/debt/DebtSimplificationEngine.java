@@ -0,0 +1,64 @@
+package com.splitwise.clone.service.debt;
+
+import com.splitwise.clone.enums.DebtStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Picks the {@link DebtSimplifier} for a group. The exact optimizer is only tried when
+ * the number of non-zero balances is small enough, and falls back to the pair-matching
+ * heuristic if it runs out of time.
+ */
+@Slf4j
+@Component
+public class DebtSimplificationEngine {
+    private final DebtStrategy strategy;
+    private final int exactMaxMembers;
+    private final DebtSimplifier greedy = new GreedyDebtSimplifier();
+    private final DebtSimplifier pairMatching = new PairMatchingDebtSimplifier();
+    private final ExactDebtSimplifier exact;
+
+    public DebtSimplificationEngine(@Value("${splitwise.debts.strategy:AUTO}") DebtStrategy strategy,
+            @Value("${splitwise.debts.exact-max-members:16}") int exactMaxMembers,
+            @Value("${splitwise.debts.exact-time-budget:50ms}") Duration exactTimeBudget) {
+        this.strategy = strategy;
+        this.exactMaxMembers = Math.min(exactMaxMembers, ExactDebtSimplifier.MAX_MEMBERS);
+        this.exact = new ExactDebtSimplifier(exactTimeBudget.toNanos());
+    }
+
+    public List<DebtSimplifier.Transfer> simplify(long[] balances) {
+        return switch (strategy) {
+            case GREEDY -> greedy.simplify(balances);
+            case PAIR_MATCHING -> pairMatching.simplify(balances);
+            case EXACT -> countNonZero(balances) <= ExactDebtSimplifier.MAX_MEMBERS
+                    ? simplifyExactly(balances)
+                    : pairMatching.simplify(balances);
+            case AUTO -> countNonZero(balances) <= exactMaxMembers
+                    ? simplifyExactly(balances)
+                    : pairMatching.simplify(balances);
+        };
+    }
+
+    private List<DebtSimplifier.Transfer> simplifyExactly(long[] balances) {
+        List<DebtSimplifier.Transfer> transfers = exact.simplify(balances);
+        if (transfers == null) {
+            log.debug("Exact debt simplification exceeded its time budget for {} members", balances.length);
+            return pairMatching.simplify(balances);
+        }
+        return transfers;
+    }
+
+    private static int countNonZero(long[] balances) {
+        int count = 0;
+        for (long balance : balances) {
+            if (balance != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
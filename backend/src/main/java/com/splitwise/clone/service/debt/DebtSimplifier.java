@@ -0,0 +1,20 @@
+package com.splitwise.clone.service.debt;
+
+import java.util.List;
+
+/**
+ * Turns net member balances into a list of transfers that settles them.
+ * Balances are in minor currency units; positive means the member is owed money,
+ * negative means they owe. Implementations must not modify the input array and must
+ * cope with balances that do not sum to zero (expenses whose splits do not add up
+ * to the paid amount leave such residue).
+ */
+public interface DebtSimplifier {
+    List<Transfer> simplify(long[] balances);
+
+    /**
+     * A payment of {@code amount} minor units from member index {@code from} to member index {@code to}.
+     */
+    record Transfer(int from, int to, long amount) {
+    }
+}
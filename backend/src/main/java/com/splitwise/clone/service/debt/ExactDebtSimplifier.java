@@ -0,0 +1,92 @@
+package com.splitwise.clone.service.debt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the minimum number of transfers. A set of {@code k} members whose balances
+ * sum to zero can always be settled with {@code k - 1} transfers, so the optimum is
+ * {@code n - p} where {@code p} is the largest number of disjoint zero-sum subsets the
+ * members can be split into. That partition is found with a dynamic program over all
+ * {@code 2^n} subsets, which is why this strategy only accepts small inputs and
+ * gives up (returning {@code null}) once its time budget is spent.
+ */
+public class ExactDebtSimplifier implements DebtSimplifier {
+    public static final int MAX_MEMBERS = 20;
+
+    private static final int DEADLINE_CHECK_MASK = 0x3FF;
+
+    private final long timeBudgetNanos;
+
+    public ExactDebtSimplifier(long timeBudgetNanos) {
+        this.timeBudgetNanos = timeBudgetNanos;
+    }
+
+    @Override
+    public List<Transfer> simplify(long[] balances) {
+        int[] members = new int[balances.length];
+        int n = 0;
+        for (int i = 0; i < balances.length; i++) {
+            if (balances[i] != 0) {
+                members[n++] = i;
+            }
+        }
+        if (n > MAX_MEMBERS) {
+            throw new IllegalArgumentException("Exact simplification supports at most " + MAX_MEMBERS
+                    + " non-zero balances, got " + n);
+        }
+
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        int full = (1 << n) - 1;
+        long[] sum = new long[full + 1];
+        // Largest number of closed zero-sum groups reachable when adding the members of mask one by one
+        byte[] groups = new byte[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            if ((mask & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+                return null;
+            }
+            int low = Integer.numberOfTrailingZeros(mask);
+            sum[mask] = sum[mask & (mask - 1)] + balances[members[low]];
+
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int without = mask & ~Integer.lowestOneBit(rest);
+                if (groups[without] > best) {
+                    best = groups[without];
+                }
+            }
+            groups[mask] = (byte) (sum[mask] == 0 ? best + 1 : best);
+        }
+
+        // Walk the optimum backwards to recover the order members were added in;
+        // every prefix summing to zero closes one group
+        int[] order = new int[n];
+        int mask = full;
+        for (int pos = n - 1; pos >= 0; pos--) {
+            int target = groups[mask] - (sum[mask] == 0 ? 1 : 0);
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = Integer.lowestOneBit(rest);
+                if (groups[mask & ~bit] == target) {
+                    order[pos] = members[Integer.numberOfTrailingZeros(bit)];
+                    mask &= ~bit;
+                    break;
+                }
+            }
+        }
+
+        long[] remaining = balances.clone();
+        List<Transfer> transfers = new ArrayList<>();
+        int[] group = new int[n];
+        int groupSize = 0;
+        long groupSum = 0;
+        for (int pos = 0; pos < n; pos++) {
+            group[groupSize++] = order[pos];
+            groupSum += balances[order[pos]];
+            if (groupSum == 0 || pos == n - 1) {
+                GreedyDebtSimplifier.settle(remaining, group, groupSize, transfers);
+                groupSize = 0;
+            }
+        }
+        return transfers;
+    }
+}
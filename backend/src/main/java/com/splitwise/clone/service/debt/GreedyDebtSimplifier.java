@@ -0,0 +1,59 @@
+package com.splitwise.clone.service.debt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matches the largest debtor with the largest creditor until one side runs out.
+ * Produces at most {@code n - 1} transfers but not necessarily the fewest.
+ */
+public class GreedyDebtSimplifier implements DebtSimplifier {
+
+    @Override
+    public List<Transfer> simplify(long[] balances) {
+        int[] members = new int[balances.length];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = i;
+        }
+        List<Transfer> transfers = new ArrayList<>();
+        settle(balances.clone(), members, members.length, transfers);
+        return transfers;
+    }
+
+    /**
+     * Settles {@code members[0..count)} greedily, consuming {@code remaining} in place.
+     */
+    static void settle(long[] remaining, int[] members, int count, List<Transfer> out) {
+        int[] debtors = new int[count];
+        int[] creditors = new int[count];
+        int debtorCount = 0, creditorCount = 0;
+        for (int i = 0; i < count; i++) {
+            int member = members[i];
+            if (remaining[member] < 0) {
+                debtors[debtorCount++] = member;
+            } else if (remaining[member] > 0) {
+                creditors[creditorCount++] = member;
+            }
+        }
+
+        // Most negative debtor first, most positive creditor first
+        DebtArrays.sortByAmount(debtors, debtorCount, remaining, false);
+        DebtArrays.sortByAmount(creditors, creditorCount, remaining, true);
+
+        int d = 0, c = 0;
+        while (d < debtorCount && c < creditorCount) {
+            int debtor = debtors[d];
+            int creditor = creditors[c];
+            long amount = Math.min(-remaining[debtor], remaining[creditor]);
+
+            out.add(new Transfer(debtor, creditor, amount));
+            remaining[debtor] += amount;
+            remaining[creditor] -= amount;
+
+            if (remaining[debtor] == 0)
+                d++;
+            if (remaining[creditor] == 0)
+                c++;
+        }
+    }
+}
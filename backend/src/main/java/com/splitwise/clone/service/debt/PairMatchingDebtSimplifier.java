@@ -0,0 +1,60 @@
+package com.splitwise.clone.service.debt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fast heuristic for large groups: first settles every debtor whose debt exactly
+ * equals some creditor's claim with a single transfer, then hands the rest to the
+ * greedy matcher. Runs in {@code O(n log n)} and never does worse than greedy alone
+ * on the members it pairs off.
+ */
+public class PairMatchingDebtSimplifier implements DebtSimplifier {
+
+    @Override
+    public List<Transfer> simplify(long[] balances) {
+        long[] remaining = balances.clone();
+        int n = remaining.length;
+        int[] debtors = new int[n];
+        int[] creditors = new int[n];
+        int debtorCount = 0, creditorCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (remaining[i] < 0) {
+                debtors[debtorCount++] = i;
+            } else if (remaining[i] > 0) {
+                creditors[creditorCount++] = i;
+            }
+        }
+
+        // Both sides ordered by increasing magnitude, then merged like sorted lists
+        DebtArrays.sortByAmount(debtors, debtorCount, remaining, true);
+        DebtArrays.sortByAmount(creditors, creditorCount, remaining, false);
+
+        List<Transfer> transfers = new ArrayList<>();
+        int[] leftover = new int[n];
+        int leftoverCount = 0;
+        int d = 0, c = 0;
+        while (d < debtorCount && c < creditorCount) {
+            long owed = -remaining[debtors[d]];
+            long claim = remaining[creditors[c]];
+            if (owed == claim) {
+                transfers.add(new Transfer(debtors[d], creditors[c], owed));
+                remaining[debtors[d++]] = 0;
+                remaining[creditors[c++]] = 0;
+            } else if (owed < claim) {
+                leftover[leftoverCount++] = debtors[d++];
+            } else {
+                leftover[leftoverCount++] = creditors[c++];
+            }
+        }
+        while (d < debtorCount) {
+            leftover[leftoverCount++] = debtors[d++];
+        }
+        while (c < creditorCount) {
+            leftover[leftoverCount++] = creditors[c++];
+        }
+
+        GreedyDebtSimplifier.settle(remaining, leftover, leftoverCount, transfers);
+        return transfers;
+    }
+}
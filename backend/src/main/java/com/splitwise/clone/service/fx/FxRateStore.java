@@ -0,0 +1,112 @@
+package com.splitwise.clone.service.fx;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Exchange rates read once at startup from CSV files; there is no live rate service.
+ * Each line is {@code date,base,quote,rate} meaning one {@code base} buys {@code rate}
+ * {@code quote} from that date on. A lookup uses the latest rate on or before the
+ * requested date, trying the pair itself, then its inverse, then a cross rate through
+ * a base both currencies are quoted against.
+ */
+@Slf4j
+@Component
+public class FxRateStore {
+    private final Map<String, Map<String, NavigableMap<LocalDate, BigDecimal>>> ratesByBase = new HashMap<>();
+
+    public FxRateStore(ResourceLoader resourceLoader,
+            @Value("${splitwise.fx.rates:classpath*:fx/*.csv}") String location) {
+        int loaded = 0;
+        try {
+            for (Resource resource : ResourcePatternUtils.getResourcePatternResolver(resourceLoader)
+                    .getResources(location)) {
+                loaded += load(resource);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not list FX rate files at " + location, ex);
+        }
+        log.info("Loaded {} FX rates for {} base currencies from {}", loaded, ratesByBase.size(), location);
+    }
+
+    public Optional<BigDecimal> find(String from, String to, LocalDate date) {
+        BigDecimal direct = lookup(from, to, date);
+        if (direct != null) {
+            return Optional.of(direct);
+        }
+        BigDecimal inverse = lookup(to, from, date);
+        if (inverse != null) {
+            return Optional.of(BigDecimal.ONE.divide(inverse, MathContext.DECIMAL64));
+        }
+        for (Map<String, NavigableMap<LocalDate, BigDecimal>> quotes : ratesByBase.values()) {
+            BigDecimal baseToFrom = floor(quotes.get(from), date);
+            BigDecimal baseToTo = floor(quotes.get(to), date);
+            if (baseToFrom != null && baseToTo != null) {
+                return Optional.of(baseToTo.divide(baseToFrom, MathContext.DECIMAL64));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private BigDecimal lookup(String base, String quote, LocalDate date) {
+        Map<String, NavigableMap<LocalDate, BigDecimal>> quotes = ratesByBase.get(base);
+        return quotes == null ? null : floor(quotes.get(quote), date);
+    }
+
+    private static BigDecimal floor(NavigableMap<LocalDate, BigDecimal> history, LocalDate date) {
+        if (history == null) {
+            return null;
+        }
+        Map.Entry<LocalDate, BigDecimal> entry = history.floorEntry(date);
+        return entry == null ? null : entry.getValue();
+    }
+
+    private int load(Resource resource) {
+        int loaded = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("date,")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 4) {
+                    throw new IllegalStateException("Malformed FX rate at " + resource.getDescription()
+                            + " line " + lineNumber);
+                }
+                String base = fields[1].strip().toUpperCase(Locale.ROOT);
+                String quote = fields[2].strip().toUpperCase(Locale.ROOT);
+                ratesByBase.computeIfAbsent(base, code -> new HashMap<>())
+                        .computeIfAbsent(quote, code -> new TreeMap<>())
+                        .put(LocalDate.parse(fields[0].strip()), new BigDecimal(fields[3].strip()));
+                loaded++;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read FX rates from " + resource.getDescription(), ex);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,104 @@
+package com.splitwise.clone.service.fx;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.splitwise.clone.exception.SplitwiseException;
+import com.splitwise.clone.service.money.CurrencyBalances;
+import com.splitwise.clone.service.money.MemberBalances;
+import com.splitwise.clone.service.money.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Currency conversion on top of {@link FxRateStore}. Resolved rates are cached per
+ * (pair, date), so converting a group costs one lookup per foreign currency it uses
+ * rather than one per expense or split.
+ */
+@Service
+public class FxService {
+    private final FxRateStore rateStore;
+    private final Cache<RateKey, BigDecimal> rates;
+
+    public FxService(FxRateStore rateStore,
+            MeterRegistry meterRegistry,
+            @Value("${splitwise.fx.cache.max-size:10000}") long maxSize) {
+        this.rateStore = rateStore;
+        this.rates = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rates, "fxRates");
+    }
+
+    /**
+     * Units of {@code to} bought by one unit of {@code from}, using the latest rate on or
+     * before {@code date}.
+     */
+    public BigDecimal rate(String from, String to, LocalDate date) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        return rates.get(new RateKey(from, to, date), key -> rateStore.find(from, to, date)
+                .orElseThrow(() -> new SplitwiseException("No FX rate for " + from + "/" + to
+                        + " on or before " + date)));
+    }
+
+    public BigDecimal convert(BigDecimal amount, String from, String to, LocalDate date) {
+        if (from.equals(to)) {
+            return amount;
+        }
+        int scale = Money.scaleOf(to);
+        return Money.toBigDecimal(Money.convert(new long[] { Money.toMinorUnits(amount, Money.scaleOf(from)) },
+                Money.scaleOf(from), rate(from, to, date), scale)[0], scale);
+    }
+
+    /**
+     * Folds every currency of {@code balances} into {@code currency}, converting each
+     * foreign currency's balance vector with a single rate. A group that only used
+     * {@code currency} is returned as is.
+     */
+    public MemberBalances toCurrency(CurrencyBalances balances, String currency, LocalDate date) {
+        MemberBalances target = balances.in(currency);
+        for (Map.Entry<String, MemberBalances> entry : balances.asMap().entrySet()) {
+            if (entry.getKey().equals(currency)) {
+                continue;
+            }
+            MemberBalances source = entry.getValue();
+            long[] converted = Money.convert(source.toArray(source.size()), source.scale(),
+                    rate(entry.getKey(), currency, date), target.scale());
+            for (int i = 0; i < converted.length; i++) {
+                target.add(source.userId(i), converted[i]);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Currency to record an amount in: {@code requested} if given, otherwise the group's.
+     * Rejects codes that are not ISO 4217 and currencies that cannot be converted into
+     * the group currency, so balance reads never meet a pair without a rate.
+     */
+    public String resolveCurrency(String requested, String groupCurrency) {
+        if (requested == null || requested.isBlank()) {
+            return groupCurrency;
+        }
+        String currency = requested.strip().toUpperCase(Locale.ROOT);
+        try {
+            Money.scaleOf(currency);
+        } catch (IllegalArgumentException ex) {
+            throw new SplitwiseException("Unsupported currency: " + requested);
+        }
+        rate(currency, groupCurrency, LocalDate.now());
+        return currency;
+    }
+
+    private record RateKey(String from, String to, LocalDate date) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.splitwise.clone.service.money;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One {@link MemberBalances} per currency a group has used, all started from the same
+ * member list so member {@code i} has index {@code i} in each of them.
+ */
+public final class CurrencyBalances {
+    private final List<UUID> memberIds;
+    private final Map<String, MemberBalances> byCurrency = new LinkedHashMap<>(4);
+
+    public CurrencyBalances(List<UUID> memberIds) {
+        this.memberIds = memberIds;
+    }
+
+    /**
+     * Balances in {@code currency}, created on first use with that currency's scale.
+     */
+    public MemberBalances in(String currency) {
+        return byCurrency.computeIfAbsent(currency, code -> new MemberBalances(memberIds, Money.scaleOf(code)));
+    }
+
+    public Set<String> currencies() {
+        return byCurrency.keySet();
+    }
+
+    public Map<String, MemberBalances> asMap() {
+        return byCurrency;
+    }
+}
@@ -0,0 +1,81 @@
+package com.splitwise.clone.service.money;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Net balance accumulator for one group, stored as a {@code long[]} of minor units
+ * indexed by member position. Member ids are resolved to indices once; adding to a
+ * balance after that allocates nothing. Users that show up in the history without
+ * being members are appended after the members.
+ */
+public final class MemberBalances {
+    private final int scale;
+    private final Map<UUID, Integer> indexById;
+    private UUID[] ids;
+    private long[] totals;
+    private int size;
+
+    public MemberBalances(List<UUID> memberIds, int scale) {
+        this.scale = scale;
+        this.indexById = new HashMap<>(Math.max(16, memberIds.size() * 2));
+        this.ids = new UUID[Math.max(4, memberIds.size())];
+        this.totals = new long[ids.length];
+        for (UUID memberId : memberIds) {
+            indexOf(memberId);
+        }
+    }
+
+    public int indexOf(UUID userId) {
+        Integer index = indexById.get(userId);
+        if (index != null) {
+            return index;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            totals = Arrays.copyOf(totals, size * 2);
+        }
+        ids[size] = userId;
+        indexById.put(userId, size);
+        return size++;
+    }
+
+    public void add(int index, long minorUnits) {
+        totals[index] += minorUnits;
+    }
+
+    public void add(UUID userId, long minorUnits) {
+        totals[indexOf(userId)] += minorUnits;
+    }
+
+    public long get(int index) {
+        return totals[index];
+    }
+
+    public long get(UUID userId) {
+        Integer index = indexById.get(userId);
+        return index == null ? 0 : totals[index];
+    }
+
+    public UUID userId(int index) {
+        return ids[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * Copy of the first {@code count} balances, in index order.
+     */
+    public long[] toArray(int count) {
+        return Arrays.copyOf(totals, count);
+    }
+}
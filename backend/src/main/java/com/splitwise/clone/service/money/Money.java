@@ -0,0 +1,176 @@
+package com.splitwise.clone.service.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Currency;
+
+/**
+ * Fixed-point amount in minor currency units (paise, cents, ...) with an explicit scale.
+ * Balance arithmetic runs on the raw {@code long}s; {@link BigDecimal} only appears when
+ * reading entities and when building DTOs.
+ */
+public record Money(long minorUnits, int scale) {
+
+    public static Money of(BigDecimal amount, int scale) {
+        return new Money(toMinorUnits(amount, scale), scale);
+    }
+
+    public static Money zero(int scale) {
+        return new Money(0, scale);
+    }
+
+    /**
+     * Number of minor-unit digits used by the given ISO 4217 currency, e.g. 2 for INR, 0 for JPY.
+     */
+    public static int scaleOf(String currencyCode) {
+        int digits = Currency.getInstance(currencyCode).getDefaultFractionDigits();
+        return Math.max(digits, 0);
+    }
+
+    public static long toMinorUnits(BigDecimal amount, int scale) {
+        return amount.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits, int scale) {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    /**
+     * Converts a vector of balances with one rate. Each value is rounded with the
+     * largest-remainder method, so the converted total is the rounded total of the
+     * exact conversions; a group's balances that summed to zero still do.
+     */
+    public static long[] convert(long[] minorUnits, int fromScale, BigDecimal rate, int toScale) {
+        BigDecimal[] exact = new BigDecimal[minorUnits.length];
+        for (int i = 0; i < minorUnits.length; i++) {
+            exact[i] = BigDecimal.valueOf(minorUnits[i], fromScale).multiply(rate).movePointRight(toScale);
+        }
+        return apportion(exact);
+    }
+
+    /**
+     * Rounds every value to a whole number of minor units so that the results add up to
+     * the sum of the inputs, rounded half-up. Values are first rounded down; the units
+     * still missing go one each to the values with the largest fractional parts, ties
+     * to the lower index.
+     */
+    public static long[] apportion(BigDecimal[] exact) {
+        long[] rounded = new long[exact.length];
+        BigDecimal[] remainders = new BigDecimal[exact.length];
+        BigDecimal total = BigDecimal.ZERO;
+        long roundedTotal = 0;
+        for (int i = 0; i < exact.length; i++) {
+            BigDecimal floor = exact[i].setScale(0, RoundingMode.FLOOR);
+            rounded[i] = floor.longValueExact();
+            remainders[i] = exact[i].subtract(floor);
+            total = total.add(exact[i]);
+            roundedTotal = Math.addExact(roundedTotal, rounded[i]);
+        }
+        long missing = total.setScale(0, RoundingMode.HALF_UP).longValueExact() - roundedTotal;
+        if (missing > 0) {
+            Integer[] order = new Integer[exact.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> remainders[b].compareTo(remainders[a]));
+            for (int i = 0; i < missing; i++) {
+                rounded[order[i]]++;
+            }
+        }
+        return rounded;
+    }
+
+    /**
+     * Splits {@code total} minor units in proportion to {@code weights}. Every share is
+     * first rounded down; the units still missing go one each to the shares with the
+     * largest remainders, ties to the lower index, so the shares always add up to
+     * {@code total}.
+     */
+    public static long[] allocate(long total, long[] weights) {
+        if (total < 0) {
+            throw new IllegalArgumentException("Cannot allocate a negative total");
+        }
+        long weightTotal = 0;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights cannot be negative");
+            }
+            weightTotal = Math.addExact(weightTotal, weight);
+        }
+        if (weightTotal == 0) {
+            throw new IllegalArgumentException("Weights must not all be zero");
+        }
+        long[] shares = new long[weights.length];
+        long[] remainders = new long[weights.length];
+        long allocated = 0;
+        for (int i = 0; i < weights.length; i++) {
+            long product = Math.multiplyExact(total, weights[i]);
+            shares[i] = product / weightTotal;
+            remainders[i] = product % weightTotal;
+            allocated += shares[i];
+        }
+        int missing = (int) (total - allocated);
+        if (missing > 0) {
+            // The missing units go to every remainder above the missing-th largest, then to ties in index order
+            long[] sorted = remainders.clone();
+            Arrays.sort(sorted);
+            long threshold = sorted[sorted.length - missing];
+            for (int i = 0; i < shares.length; i++) {
+                if (remainders[i] > threshold) {
+                    shares[i]++;
+                    missing--;
+                }
+            }
+            for (int i = 0; i < shares.length && missing > 0; i++) {
+                if (remainders[i] == threshold) {
+                    shares[i]++;
+                    missing--;
+                }
+            }
+        }
+        return shares;
+    }
+
+    /**
+     * Splits {@code total} minor units into {@code parts} equal shares, the first
+     * {@code total % parts} of them one unit larger.
+     */
+    public static long[] allocateEvenly(long total, int parts) {
+        long[] shares = new long[parts];
+        long share = total / parts;
+        long extra = total % parts;
+        for (int i = 0; i < parts; i++) {
+            shares[i] = i < extra ? share + 1 : share;
+        }
+        return shares;
+    }
+
+    public Money plus(Money other) {
+        checkScale(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), scale);
+    }
+
+    public Money minus(Money other) {
+        checkScale(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), scale);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), scale);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(minorUnits, scale);
+    }
+
+    private void checkScale(Money other) {
+        if (other.scale != scale) {
+            throw new IllegalArgumentException("Cannot combine amounts with scale " + scale + " and " + other.scale);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.splitwise.clone.service.split;
+
+import com.splitwise.clone.dto.CreateExpenseRequest;
+import com.splitwise.clone.dto.ExpenseItemRequest;
+import com.splitwise.clone.dto.ExpenseSplitRequest;
+import com.splitwise.clone.enums.SplitMode;
+import com.splitwise.clone.exception.SplitwiseException;
+import com.splitwise.clone.service.money.Money;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Turns the split of an expense into owed amounts in minor units of its currency. Every
+ * mode ends in {@link Money#allocate} or {@link Money#allocateEvenly}, so the owed
+ * amounts always add up to the expense amount and leftover units land on the same
+ * members whichever client sent the request.
+ */
+@Component
+public class SplitCalculator {
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+    public Allocation calculate(CreateExpenseRequest request, String currency) {
+        int scale = Money.scaleOf(currency);
+        long total = toMinorUnits(request.getAmount(), scale, currency, "Amount");
+        SplitMode mode = request.getSplitMode() == null ? SplitMode.EXACT : request.getSplitMode();
+        try {
+            if (mode == SplitMode.ITEMIZED) {
+                return itemized(total, scale, currency, request.getItems());
+            }
+            List<ExpenseSplitRequest> splits = request.getSplits();
+            if (splits == null || splits.isEmpty()) {
+                throw new SplitwiseException("At least one split is required");
+            }
+            UUID[] userIds = userIds(splits);
+            long[] owed = switch (mode) {
+                case EQUAL -> Money.allocateEvenly(total, splits.size());
+                case PERCENTAGE -> Money.allocate(total, percentages(splits));
+                case SHARES -> Money.allocate(total, weights(splits, ExpenseSplitRequest::getShares, "Shares"));
+                default -> exact(total, scale, currency, splits);
+            };
+            return new Allocation(userIds, owed, scale);
+        } catch (ArithmeticException ex) {
+            throw new SplitwiseException("Split is too large or too precise to calculate");
+        } catch (IllegalArgumentException ex) {
+            throw new SplitwiseException(ex.getMessage());
+        }
+    }
+
+    private static UUID[] userIds(List<ExpenseSplitRequest> splits) {
+        UUID[] userIds = new UUID[splits.size()];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = splits.get(i).getUserId();
+            if (userIds[i] == null) {
+                throw new SplitwiseException("User ID is required for every split");
+            }
+        }
+        UserIndex index = new UserIndex(userIds.length);
+        for (int i = 0; i < userIds.length; i++) {
+            if (index.add(userIds[i]) != i) {
+                throw new SplitwiseException("User " + userIds[i] + " appears in more than one split");
+            }
+        }
+        return userIds;
+    }
+
+    private static long[] exact(long total, int scale, String currency, List<ExpenseSplitRequest> splits) {
+        long[] owed = new long[splits.size()];
+        long sum = 0;
+        for (int i = 0; i < owed.length; i++) {
+            BigDecimal owedAmount = splits.get(i).getOwedAmount();
+            if (owedAmount == null) {
+                throw new SplitwiseException("Owed amount is required for every split");
+            }
+            owed[i] = toMinorUnits(owedAmount, scale, currency, "Owed amount");
+            sum = Math.addExact(sum, owed[i]);
+        }
+        if (sum != total) {
+            throw new SplitwiseException("Split amounts add up to " + Money.toBigDecimal(sum, scale)
+                    + " but the expense amount is " + Money.toBigDecimal(total, scale));
+        }
+        return owed;
+    }
+
+    private static long[] percentages(List<ExpenseSplitRequest> splits) {
+        long[] weights = weights(splits, ExpenseSplitRequest::getPercentage, "Percentage");
+        BigDecimal sum = BigDecimal.ZERO;
+        for (ExpenseSplitRequest split : splits) {
+            sum = sum.add(split.getPercentage());
+        }
+        if (sum.compareTo(ONE_HUNDRED) != 0) {
+            throw new SplitwiseException("Percentages must add up to 100 but add up to " + sum.toPlainString());
+        }
+        return weights;
+    }
+
+    /**
+     * Reads a decimal weight from every split and scales them all by the same power of
+     * ten so they become whole numbers with the same ratios.
+     */
+    private static long[] weights(List<ExpenseSplitRequest> splits, Function<ExpenseSplitRequest, BigDecimal> field,
+            String name) {
+        int scale = 0;
+        for (ExpenseSplitRequest split : splits) {
+            BigDecimal value = field.apply(split);
+            if (value == null) {
+                throw new SplitwiseException(name + " is required for every split");
+            }
+            if (value.signum() < 0) {
+                throw new SplitwiseException(name + " cannot be negative");
+            }
+            scale = Math.max(scale, value.scale() > 0 ? value.stripTrailingZeros().scale() : 0);
+        }
+        long[] weights = new long[splits.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = field.apply(splits.get(i)).setScale(scale).unscaledValue().longValueExact();
+        }
+        return weights;
+    }
+
+    /**
+     * Splits each item equally between its users, then spreads whatever the items do not
+     * cover (tax, tip, service charge) in proportion to what each user's items came to.
+     */
+    private static Allocation itemized(long total, int scale, String currency, List<ExpenseItemRequest> items) {
+        if (items == null || items.isEmpty()) {
+            throw new SplitwiseException("At least one item is required");
+        }
+        int mentions = 0;
+        for (ExpenseItemRequest item : items) {
+            if (item.getAmount() == null || item.getAmount().signum() < 0) {
+                throw new SplitwiseException("Item '" + item.getDescription() + "' needs a non-negative amount");
+            }
+            if (item.getUserIds() == null || item.getUserIds().isEmpty() || item.getUserIds().contains(null)) {
+                throw new SplitwiseException("Item '" + item.getDescription() + "' needs at least one user");
+            }
+            mentions += item.getUserIds().size();
+        }
+
+        UserIndex index = new UserIndex(mentions);
+        long[] owed = new long[mentions];
+        // Number of the last item each user was seen on, to catch a user listed twice on one item
+        int[] lastItem = new int[mentions];
+        long itemsTotal = 0;
+        for (int itemNumber = 1; itemNumber <= items.size(); itemNumber++) {
+            ExpenseItemRequest item = items.get(itemNumber - 1);
+            long amount = toMinorUnits(item.getAmount(), scale, currency, "Item amount");
+            int sharedBy = item.getUserIds().size();
+            for (int i = 0; i < sharedBy; i++) {
+                int position = index.add(item.getUserIds().get(i));
+                if (lastItem[position] == itemNumber) {
+                    throw new SplitwiseException("Item '" + item.getDescription() + "' lists a user more than once");
+                }
+                lastItem[position] = itemNumber;
+                // Same shares as Money.allocateEvenly without the array
+                owed[position] += amount / sharedBy + (i < amount % sharedBy ? 1 : 0);
+            }
+            itemsTotal = Math.addExact(itemsTotal, amount);
+        }
+        UUID[] userIds = index.userIds();
+        owed = Arrays.copyOf(owed, userIds.length);
+        if (itemsTotal > total) {
+            throw new SplitwiseException("Items add up to " + Money.toBigDecimal(itemsTotal, scale)
+                    + ", more than the expense amount " + Money.toBigDecimal(total, scale));
+        }
+        if (itemsTotal < total) {
+            if (itemsTotal == 0) {
+                throw new SplitwiseException("Items must not all be zero");
+            }
+            long[] extra = Money.allocate(total - itemsTotal, owed.clone());
+            for (int i = 0; i < owed.length; i++) {
+                owed[i] += extra[i];
+            }
+        }
+        return new Allocation(userIds, owed, scale);
+    }
+
+    private static long toMinorUnits(BigDecimal amount, int scale, String currency, String name) {
+        if (amount.scale() > scale && amount.stripTrailingZeros().scale() > scale) {
+            throw new SplitwiseException(name + " " + amount.toPlainString() + " has more decimal places than "
+                    + currency + " allows");
+        }
+        return Money.toMinorUnits(amount, scale);
+    }
+
+    /**
+     * Positions of user ids in the order they were first added, in an open-addressing
+     * table sized once up front so indexing a split does not allocate per user.
+     */
+    private static final class UserIndex {
+        private final UUID[] slots;
+        private final int[] positions;
+        private final UUID[] userIds;
+        private int size;
+
+        private UserIndex(int capacity) {
+            int tableSize = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1;
+            this.slots = new UUID[tableSize];
+            this.positions = new int[tableSize];
+            this.userIds = new UUID[capacity];
+        }
+
+        /**
+         * Position of {@code userId}, which is {@link #size} before the call if it is new.
+         */
+        private int add(UUID userId) {
+            int hash = userId.hashCode();
+            int mask = slots.length - 1;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (slots[slot] != null) {
+                if (slots[slot].equals(userId)) {
+                    return positions[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = userId;
+            positions[slot] = size;
+            userIds[size] = userId;
+            return size++;
+        }
+
+        private UUID[] userIds() {
+            return size == userIds.length ? userIds : Arrays.copyOf(userIds, size);
+        }
+    }
+
+    /**
+     * Owed amount of each user, in minor units at {@code scale}.
+     */
+    public record Allocation(UUID[] userIds, long[] owed, int scale) {
+
+        public int size() {
+            return userIds.length;
+        }
+
+        public UUID userId(int index) {
+            return userIds[index];
+        }
+
+        public BigDecimal owedAmount(int index) {
+            return Money.toBigDecimal(owed[index], scale);
+        }
+    }
+}
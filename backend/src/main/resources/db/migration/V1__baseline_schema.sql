@@ -0,0 +1,78 @@
+-- Schema as previously generated by ddl-auto=update. Databases created that way are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE users (
+    id            uuid         NOT NULL,
+    name          varchar(255) NOT NULL,
+    email         varchar(255) NOT NULL,
+    password_hash varchar(255) NOT NULL,
+    created_at    timestamp(6),
+    updated_at    timestamp(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE groups (
+    id           uuid         NOT NULL,
+    name         varchar(255) NOT NULL,
+    invite_token varchar(255),
+    created_by   uuid         NOT NULL,
+    created_at   timestamp(6),
+    updated_at   timestamp(6),
+    CONSTRAINT pk_groups PRIMARY KEY (id),
+    CONSTRAINT uk_groups_invite_token UNIQUE (invite_token),
+    CONSTRAINT fk_groups_created_by FOREIGN KEY (created_by) REFERENCES users (id)
+);
+
+CREATE TABLE group_members (
+    id        uuid NOT NULL,
+    group_id  uuid NOT NULL,
+    user_id   uuid NOT NULL,
+    joined_at timestamp(6),
+    CONSTRAINT pk_group_members PRIMARY KEY (id),
+    CONSTRAINT uk_group_members_group_user UNIQUE (group_id, user_id),
+    CONSTRAINT fk_group_members_group FOREIGN KEY (group_id) REFERENCES groups (id),
+    CONSTRAINT fk_group_members_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE expenses (
+    id          uuid          NOT NULL,
+    group_id    uuid          NOT NULL,
+    description varchar(255)  NOT NULL,
+    amount      numeric(38,2) NOT NULL,
+    paid_by     uuid          NOT NULL,
+    created_by  uuid          NOT NULL,
+    is_deleted  boolean,
+    created_at  timestamp(6),
+    updated_at  timestamp(6),
+    CONSTRAINT pk_expenses PRIMARY KEY (id),
+    CONSTRAINT fk_expenses_group FOREIGN KEY (group_id) REFERENCES groups (id),
+    CONSTRAINT fk_expenses_paid_by FOREIGN KEY (paid_by) REFERENCES users (id),
+    CONSTRAINT fk_expenses_created_by FOREIGN KEY (created_by) REFERENCES users (id)
+);
+
+CREATE TABLE expense_splits (
+    id          uuid          NOT NULL,
+    expense_id  uuid          NOT NULL,
+    user_id     uuid          NOT NULL,
+    owed_amount numeric(38,2) NOT NULL,
+    CONSTRAINT pk_expense_splits PRIMARY KEY (id),
+    CONSTRAINT fk_expense_splits_expense FOREIGN KEY (expense_id) REFERENCES expenses (id),
+    CONSTRAINT fk_expense_splits_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE settlements (
+    id         uuid          NOT NULL,
+    group_id   uuid          NOT NULL,
+    from_user  uuid          NOT NULL,
+    to_user    uuid          NOT NULL,
+    amount     numeric(38,2) NOT NULL,
+    status     varchar(255)  NOT NULL,
+    created_at timestamp(6),
+    settled_at timestamp(6),
+    CONSTRAINT pk_settlements PRIMARY KEY (id),
+    CONSTRAINT ck_settlements_status CHECK (status IN ('PENDING', 'SETTLED')),
+    CONSTRAINT fk_settlements_group FOREIGN KEY (group_id) REFERENCES groups (id),
+    CONSTRAINT fk_settlements_from_user FOREIGN KEY (from_user) REFERENCES users (id),
+    CONSTRAINT fk_settlements_to_user FOREIGN KEY (to_user) REFERENCES users (id)
+);
@@ -0,0 +1,84 @@
+-- Derived tables kept up to date by the application. They may already exist on databases
+-- that ran ddl-auto=update, so they are created conditionally and then rebuilt from the
+-- source tables; the rebuild is the same computation the services apply incrementally.
+
+CREATE TABLE IF NOT EXISTS group_balances (
+    id          uuid          NOT NULL,
+    group_id    uuid          NOT NULL,
+    user_id     uuid          NOT NULL,
+    net_balance numeric(38,2) NOT NULL,
+    updated_at  timestamp(6),
+    CONSTRAINT pk_group_balances PRIMARY KEY (id),
+    CONSTRAINT uk_group_balances_group_user UNIQUE (group_id, user_id),
+    CONSTRAINT fk_group_balances_group FOREIGN KEY (group_id) REFERENCES groups (id),
+    CONSTRAINT fk_group_balances_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS pair_balances (
+    id              uuid          NOT NULL,
+    user_id         uuid          NOT NULL,
+    counterparty_id uuid          NOT NULL,
+    net_amount      numeric(38,2) NOT NULL,
+    updated_at      timestamp(6),
+    CONSTRAINT pk_pair_balances PRIMARY KEY (id),
+    CONSTRAINT uk_pair_balances_user_counterparty UNIQUE (user_id, counterparty_id),
+    CONSTRAINT fk_pair_balances_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_pair_balances_counterparty FOREIGN KEY (counterparty_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS friendships (
+    id            uuid    NOT NULL,
+    user_id       uuid    NOT NULL,
+    friend_id     uuid    NOT NULL,
+    shared_groups integer NOT NULL,
+    created_at    timestamp(6),
+    CONSTRAINT pk_friendships PRIMARY KEY (id),
+    CONSTRAINT uk_friendships_user_friend UNIQUE (user_id, friend_id),
+    CONSTRAINT fk_friendships_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_friendships_friend FOREIGN KEY (friend_id) REFERENCES users (id)
+);
+
+-- Positive means the member is owed (BalanceLedgerService)
+DELETE FROM group_balances;
+INSERT INTO group_balances (id, group_id, user_id, net_balance, updated_at)
+SELECT gen_random_uuid(), t.group_id, t.user_id, SUM(t.delta), now()
+FROM (
+    SELECT e.group_id, e.paid_by AS user_id, e.amount AS delta
+    FROM expenses e WHERE e.is_deleted = false
+    UNION ALL
+    SELECT e.group_id, s.user_id, -s.owed_amount
+    FROM expense_splits s JOIN expenses e ON e.id = s.expense_id WHERE e.is_deleted = false
+    UNION ALL
+    SELECT st.group_id, st.from_user, st.amount FROM settlements st
+    UNION ALL
+    SELECT st.group_id, st.to_user, -st.amount FROM settlements st
+) t
+GROUP BY t.group_id, t.user_id
+HAVING SUM(t.delta) <> 0;
+
+-- Positive means the counterparty owes the user (PairBalanceService)
+DELETE FROM pair_balances;
+INSERT INTO pair_balances (id, user_id, counterparty_id, net_amount, updated_at)
+SELECT gen_random_uuid(), t.user_id, t.counterparty_id, SUM(t.delta), now()
+FROM (
+    SELECT e.paid_by AS user_id, s.user_id AS counterparty_id, s.owed_amount AS delta
+    FROM expense_splits s JOIN expenses e ON e.id = s.expense_id
+    WHERE e.is_deleted = false AND s.user_id <> e.paid_by
+    UNION ALL
+    SELECT s.user_id, e.paid_by, -s.owed_amount
+    FROM expense_splits s JOIN expenses e ON e.id = s.expense_id
+    WHERE e.is_deleted = false AND s.user_id <> e.paid_by
+    UNION ALL
+    SELECT st.from_user, st.to_user, st.amount FROM settlements st WHERE st.from_user <> st.to_user
+    UNION ALL
+    SELECT st.to_user, st.from_user, -st.amount FROM settlements st WHERE st.from_user <> st.to_user
+) t
+GROUP BY t.user_id, t.counterparty_id
+HAVING SUM(t.delta) <> 0;
+
+-- One directed edge per ordered pair of users sharing at least one group (FriendshipService)
+DELETE FROM friendships;
+INSERT INTO friendships (id, user_id, friend_id, shared_groups, created_at)
+SELECT gen_random_uuid(), a.user_id, b.user_id, COUNT(*), now()
+FROM group_members a JOIN group_members b ON b.group_id = a.group_id AND b.user_id <> a.user_id
+GROUP BY a.user_id, b.user_id;
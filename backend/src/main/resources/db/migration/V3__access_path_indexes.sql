@@ -0,0 +1,28 @@
+-- Secondary indexes for the repository queries. Built CONCURRENTLY so the migration does
+-- not block writes on a populated database; Flyway runs these statements outside a
+-- transaction, which is why nothing else may go in this script.
+
+-- ExpenseRepository active list, keyset pages, export stream and paid amounts.
+-- Partial on the predicate every read uses; soft-deleted rows never enter the index.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_expenses_group_active
+    ON expenses (group_id, created_at, id) INCLUDE (paid_by, amount)
+    WHERE is_deleted = false;
+
+-- Splits by expense (group reads join through it) and by user
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_expense_splits_expense
+    ON expense_splits (expense_id) INCLUDE (user_id, owed_amount);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_expense_splits_user
+    ON expense_splits (user_id);
+
+-- SettlementRepository list, keyset pages, export stream and transfers
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_settlements_group
+    ON settlements (group_id, created_at, id) INCLUDE (from_user, to_user, amount);
+-- findByFromUserOrToUser combines these with a BitmapOr
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_settlements_from_user
+    ON settlements (from_user);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_settlements_to_user
+    ON settlements (to_user);
+
+-- Groups of a user (dashboard, group list); lookups by group use the unique (group_id, user_id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_group_members_user
+    ON group_members (user_id) INCLUDE (group_id);
@@ -0,0 +1,22 @@
+CREATE TABLE outbox_events (
+    id           uuid          NOT NULL,
+    type         varchar(255)  NOT NULL,
+    group_id     uuid          NOT NULL,
+    aggregate_id uuid          NOT NULL,
+    payload      text          NOT NULL,
+    created_at   timestamp(6),
+    available_at timestamp(6)  NOT NULL,
+    attempts     integer       NOT NULL,
+    processed_at timestamp(6),
+    last_error   varchar(1000),
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id),
+    CONSTRAINT ck_outbox_events_type
+        CHECK (type IN ('EXPENSE_ADDED', 'EXPENSE_DELETED', 'SETTLEMENT_CREATED', 'MEMBER_JOINED'))
+);
+
+-- OutboxEventRepository.lockDueBatch; only undelivered rows are indexed, so the index
+-- stays small however much delivered history is retained
+CREATE INDEX ix_outbox_events_due ON outbox_events (available_at, id) WHERE processed_at IS NULL;
+
+-- Retention purge
+CREATE INDEX ix_outbox_events_processed ON outbox_events (processed_at) WHERE processed_at IS NOT NULL;
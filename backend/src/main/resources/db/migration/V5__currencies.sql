@@ -0,0 +1,37 @@
+-- Every amount recorded before this migration was in splitwise.money.currency, which
+-- Flyway passes in as the default_currency placeholder. The defaults only backfill
+-- existing rows (PostgreSQL stores them without rewriting the table) and are dropped
+-- right after, so new rows must name their currency.
+ALTER TABLE groups ADD COLUMN currency varchar(3) NOT NULL DEFAULT '${default_currency}';
+ALTER TABLE groups ALTER COLUMN currency DROP DEFAULT;
+
+ALTER TABLE expenses ADD COLUMN currency varchar(3) NOT NULL DEFAULT '${default_currency}';
+ALTER TABLE expenses ALTER COLUMN currency DROP DEFAULT;
+
+ALTER TABLE settlements ADD COLUMN currency varchar(3) NOT NULL DEFAULT '${default_currency}';
+ALTER TABLE settlements ALTER COLUMN currency DROP DEFAULT;
+
+-- Ledgers keep one running balance per currency; conversion happens on read
+ALTER TABLE group_balances ADD COLUMN currency varchar(3) NOT NULL DEFAULT '${default_currency}';
+ALTER TABLE group_balances ALTER COLUMN currency DROP DEFAULT;
+
+ALTER TABLE pair_balances ADD COLUMN currency varchar(3) NOT NULL DEFAULT '${default_currency}';
+ALTER TABLE pair_balances ALTER COLUMN currency DROP DEFAULT;
+
+-- Tables created by ddl-auto=update carry Hibernate-generated names for their unique
+-- constraint, so look it up instead of dropping uk_group_balances_group_user by name
+DO $$
+DECLARE
+    c record;
+BEGIN
+    FOR c IN SELECT conrelid::regclass AS tbl, conname FROM pg_constraint
+             WHERE contype = 'u' AND conrelid IN ('group_balances'::regclass, 'pair_balances'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', c.tbl, c.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE group_balances
+    ADD CONSTRAINT uk_group_balances_group_user_currency UNIQUE (group_id, user_id, currency);
+ALTER TABLE pair_balances
+    ADD CONSTRAINT uk_pair_balances_user_counterparty_currency UNIQUE (user_id, counterparty_id, currency);
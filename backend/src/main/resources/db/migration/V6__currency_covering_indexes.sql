@@ -0,0 +1,11 @@
+-- Balance replays now read the currency of each expense and settlement; rebuild the
+-- V3 covering indexes with it so those reads stay index-only. CONCURRENTLY, like V3,
+-- so nothing else may go in this script.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_expenses_group_active_currency
+    ON expenses (group_id, created_at, id) INCLUDE (paid_by, amount, currency)
+    WHERE is_deleted = false;
+DROP INDEX CONCURRENTLY IF EXISTS ix_expenses_group_active;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_settlements_group_currency
+    ON settlements (group_id, created_at, id) INCLUDE (from_user, to_user, amount, currency);
+DROP INDEX CONCURRENTLY IF EXISTS ix_settlements_group;
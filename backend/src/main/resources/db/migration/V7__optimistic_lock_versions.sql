@@ -0,0 +1,6 @@
+-- Optimistic-lock versions. Existing rows start at 0 (PostgreSQL stores the constant
+-- default without rewriting the tables); Hibernate increments the column on every
+-- update. The groups version is also bumped each time a write takes the group lock.
+ALTER TABLE groups ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE expenses ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE settlements ADD COLUMN version bigint NOT NULL DEFAULT 0;
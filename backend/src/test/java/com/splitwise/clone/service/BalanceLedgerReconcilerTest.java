@@ -0,0 +1,61 @@
+package com.splitwise.clone.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(GroupFixture.class)
+@EnabledIfEnvironmentVariable(named = "SPLITWISE_TEST_DB_URL", matches = ".+")
+class BalanceLedgerReconcilerTest {
+
+    @Autowired
+    private GroupFixture fixture;
+
+    @Autowired
+    private BalanceLedgerReconciler reconciler;
+
+    @Autowired
+    private GroupRevisions groupRevisions;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void checkingACleanGroupKeepsItsRevision() {
+        UUID groupId = fixture.groupWithExpenses(3, 4).id();
+        long revision = groupRevisions.current(groupId);
+
+        assertThat(reconcile(groupId)).isTrue();
+        assertThat(groupRevisions.current(groupId)).isEqualTo(revision);
+    }
+
+    @Test
+    void repairingDriftMovesTheRevisionOn() {
+        UUID groupId = fixture.groupWithExpenses(3, 4).id();
+        jdbcTemplate.update("UPDATE group_balances SET net_balance = net_balance + 1 WHERE group_id = ?", groupId);
+        long revision = groupRevisions.current(groupId);
+
+        assertThat(reconcile(groupId)).isFalse();
+        assertThat(groupRevisions.current(groupId)).isEqualTo(revision + 1);
+        assertThat(reconcile(groupId)).isTrue();
+        assertThat(groupRevisions.current(groupId)).isEqualTo(revision + 1);
+    }
+
+    private boolean reconcile(UUID groupId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> reconciler.reconcileGroup(groupId)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.splitwise.clone.service;
+
+import com.splitwise.clone.dto.CreateExpenseRequest;
+import com.splitwise.clone.dto.CreateGroupRequest;
+import com.splitwise.clone.dto.ExpenseSplitRequest;
+import com.splitwise.clone.dto.UserRequest;
+import com.splitwise.clone.enums.SplitMode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seeds groups through the services, so every row and running balance is written the
+ * way the API writes it. Each group gets freshly registered members.
+ */
+@TestComponent
+@RequiredArgsConstructor
+class GroupFixture {
+    private final UserService userService;
+    private final GroupService groupService;
+    private final ExpenseService expenseService;
+
+    SeededGroup groupWithExpenses(int members, int expenses) {
+        List<UUID> memberIds = new ArrayList<>();
+        for (int i = 0; i < members; i++) {
+            UserRequest user = new UserRequest();
+            user.setName("Member " + i);
+            user.setEmail(UUID.randomUUID() + "@example.com");
+            user.setPassword("secret");
+            memberIds.add(userService.register(user).getId());
+        }
+
+        CreateGroupRequest request = new CreateGroupRequest();
+        request.setName("Fixture group");
+        request.setCreatedBy(memberIds.get(0));
+        request.setInitialMembers(memberIds);
+        SeededGroup group = new SeededGroup(groupService.createGroup(request).getId(), List.copyOf(memberIds),
+                new ArrayList<>());
+
+        for (int i = 0; i < expenses; i++) {
+            group.expenseIds().add(addExpense(group, i));
+        }
+        return group;
+    }
+
+    /**
+     * Adds a 10.00 expense split equally between all members, paid by member
+     * {@code number % members}.
+     */
+    UUID addExpense(SeededGroup group, int number) {
+        List<UUID> members = group.members();
+        CreateExpenseRequest expense = new CreateExpenseRequest();
+        expense.setGroupId(group.id());
+        expense.setDescription("Expense " + number);
+        expense.setAmount(new BigDecimal("10.00"));
+        expense.setPaidBy(members.get(number % members.size()));
+        expense.setCreatedBy(members.get(0));
+        expense.setSplitMode(SplitMode.EQUAL);
+        List<ExpenseSplitRequest> splits = new ArrayList<>();
+        for (UUID member : members) {
+            ExpenseSplitRequest split = new ExpenseSplitRequest();
+            split.setUserId(member);
+            splits.add(split);
+        }
+        expense.setSplits(splits);
+        return expenseService.addExpense(expense).getId();
+    }
+
+    /**
+     * {@code expenseIds} holds the expenses added by {@link #groupWithExpenses}, in order.
+     */
+    record SeededGroup(UUID id, List<UUID> members, List<UUID> expenseIds) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.splitwise.clone.service;
+
+import com.splitwise.clone.metrics.RequestQueryStats;
+import com.splitwise.clone.metrics.SqlBudget;
+import com.splitwise.clone.repository.GroupRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Group reads must cost the same number of statements however long the group's history
+ * is; a query per expense or per split shows up here as a count that grows with it.
+ * Balances are checked in every {@code splitwise.balance.mode}, since only the replaying
+ * modes read expenses and splits at all.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(GroupFixture.class)
+@EnabledIfEnvironmentVariable(named = "SPLITWISE_TEST_DB_URL", matches = ".+")
+class GroupReadQueryCountTest {
+    private static final int EXPENSES = 5;
+    private static final SqlBudget UNLIMITED = new SqlBudget(Integer.MAX_VALUE, Integer.MAX_VALUE,
+            Integer.MAX_VALUE, false);
+
+    @Autowired
+    private GroupFixture fixture;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void expenseListingCostsTheSameForTenTimesTheExpenses() {
+        UUID small = fixture.groupWithExpenses(3, EXPENSES).id();
+        UUID large = fixture.groupWithExpenses(3, 10 * EXPENSES).id();
+
+        assertThat(expenseService.getGroupExpenses(large)).hasSize(10 * EXPENSES);
+        // Group, expenses, splits
+        assertStatementCount(cacheManager, small, large, groupId -> { }, expenseService::getGroupExpenses, 3);
+        // Group, page of expenses, their splits
+        assertStatementCount(cacheManager, small, large, groupId -> { },
+                groupId -> expenseService.getGroupExpensePage(groupId, null, 100), 3);
+    }
+
+    @Test
+    void expenseListingCountsProjectionRows() {
+        UUID groupId = fixture.groupWithExpenses(3, 10 * EXPENSES).id();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        RequestQueryStats stats = RequestQueryStats.begin(UNLIMITED);
+        try {
+            expenseService.getGroupExpenses(groupId);
+        } finally {
+            RequestQueryStats.detach(stats);
+        }
+
+        // The group, every expense and three splits each, all read as records
+        assertThat(stats.rows()).isEqualTo(1 + 10 * EXPENSES + 3 * 10 * EXPENSES);
+        assertThat(stats.entityLoads()).isZero();
+    }
+
+    @Nested
+    class LedgerMode extends BalanceReads {
+        LedgerMode() {
+            // Revision, group, members, ledger rows
+            super(4);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "splitwise.balance.mode=IN_MEMORY")
+    class InMemoryMode extends BalanceReads {
+        InMemoryMode() {
+            // Revision, group, members, paid amounts, owed amounts, settlements
+            super(6);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "splitwise.balance.mode=SQL_AGGREGATE")
+    class SqlAggregateMode extends BalanceReads {
+        SqlAggregateMode() {
+            // Revision, group, members, one aggregate over expenses, splits and settlements
+            super(4);
+        }
+    }
+
+    /**
+     * Runs in the nested class's own context, so the services read balances in that
+     * class's mode.
+     */
+    abstract class BalanceReads {
+        private final int maxStatements;
+
+        @Autowired
+        private GroupFixture fixture;
+
+        @Autowired
+        private BalanceService balanceService;
+
+        @Autowired
+        private GroupRepository groupRepository;
+
+        @Autowired
+        private TransactionTemplate transactionTemplate;
+
+        @Autowired
+        private CacheManager cacheManager;
+
+        BalanceReads(int maxStatements) {
+            this.maxStatements = maxStatements;
+        }
+
+        @Test
+        void balancesCostTheSameForTenTimesTheExpenses() {
+            UUID small = fixture.groupWithExpenses(3, EXPENSES).id();
+            UUID large = fixture.groupWithExpenses(3, 10 * EXPENSES).id();
+
+            assertStatementCount(cacheManager, small, large, this::invalidateSnapshot,
+                    balanceService::getGroupBalances, maxStatements);
+        }
+
+        @Test
+        void debtsCostTheSameForTenTimesTheExpenses() {
+            UUID small = fixture.groupWithExpenses(3, EXPENSES).id();
+            UUID large = fixture.groupWithExpenses(3, 10 * EXPENSES).id();
+
+            assertStatementCount(cacheManager, small, large, this::invalidateSnapshot,
+                    balanceService::getGroupDebts, maxStatements);
+        }
+
+        /**
+         * Moves the group's revision on, so the balance snapshot cache misses and the next
+         * read recomputes the balances.
+         */
+        private void invalidateSnapshot(UUID groupId) {
+            transactionTemplate.executeWithoutResult(status -> groupRepository.lockForWrite(groupId));
+        }
+    }
+
+    /**
+     * Runs {@code prepare} and then counts the statements of {@code read}, for each group.
+     */
+    private static void assertStatementCount(CacheManager cacheManager, UUID small, UUID large,
+            Consumer<UUID> prepare, Consumer<UUID> read, int maxStatements) {
+        int smallStatements = statementsFor(cacheManager, small, prepare, read);
+        int largeStatements = statementsFor(cacheManager, large, prepare, read);
+
+        assertThat(smallStatements).isPositive().isLessThanOrEqualTo(maxStatements);
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    private static int statementsFor(CacheManager cacheManager, UUID groupId, Consumer<UUID> prepare,
+            Consumer<UUID> read) {
+        prepare.accept(groupId);
+        // Start cold, so cached users and groups do not hide queries from either run
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        RequestQueryStats stats = RequestQueryStats.begin(UNLIMITED);
+        try {
+            read.accept(groupId);
+        } finally {
+            RequestQueryStats.detach(stats);
+        }
+        return stats.statements();
+    }
+}
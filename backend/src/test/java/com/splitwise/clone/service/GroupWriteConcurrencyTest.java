@@ -0,0 +1,145 @@
+package com.splitwise.clone.service;
+
+import com.splitwise.clone.dto.CreateSettlementRequest;
+import com.splitwise.clone.exception.SplitwiseException;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Races expense writes, double deletes and a settlement on one group. The group write
+ * lock must keep every delete either fully before the settlement or rejected after it,
+ * and keep the running ledger equal to the history.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(GroupFixture.class)
+@EnabledIfEnvironmentVariable(named = "SPLITWISE_TEST_DB_URL", matches = ".+")
+class GroupWriteConcurrencyTest {
+    private static final int SEEDED_EXPENSES = 30;
+    private static final int ADDED_EXPENSES = 20;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private GroupFixture fixture;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private BalanceLedgerReconciler reconciler;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @RepeatedTest(3)
+    void deletesNeverCommitAfterASettlementAndTheLedgerMatchesHistory() throws Exception {
+        GroupFixture.SeededGroup group = fixture.groupWithExpenses(3, SEEDED_EXPENSES);
+        UUID groupId = group.id();
+        List<UUID> members = group.members();
+
+        Set<UUID> deleted = ConcurrentHashMap.newKeySet();
+        Set<UUID> deletedTwice = ConcurrentHashMap.newKeySet();
+        List<Runnable> tasks = new ArrayList<>();
+        for (UUID expenseId : group.expenseIds()) {
+            // Every expense is deleted twice, so at most one of each pair may succeed
+            for (int attempt = 0; attempt < 2; attempt++) {
+                tasks.add(() -> {
+                    try {
+                        expenseService.deleteExpense(expenseId);
+                        if (!deleted.add(expenseId)) {
+                            deletedTwice.add(expenseId);
+                        }
+                    } catch (SplitwiseException ex) {
+                        // Already deleted, or a settlement got there first
+                    }
+                });
+            }
+        }
+        for (int i = 0; i < ADDED_EXPENSES; i++) {
+            int number = SEEDED_EXPENSES + i;
+            tasks.add(() -> fixture.addExpense(group, number));
+        }
+        Collections.shuffle(tasks, new Random(groupId.getMostSignificantBits()));
+        tasks.add(tasks.size() / 2, () -> settle(groupId, members.get(1), members.get(0)));
+
+        runConcurrently(tasks);
+
+        assertThat(deletedTwice).isEmpty();
+        List<Map<String, Object>> deletedRows = jdbcTemplate.queryForList(
+                "SELECT id, updated_at FROM expenses WHERE group_id = ? AND is_deleted", groupId);
+        assertThat(deletedRows).extracting(row -> (UUID) row.get("id")).containsExactlyInAnyOrderElementsOf(deleted);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM expenses WHERE group_id = ? AND NOT is_deleted",
+                Long.class, groupId)).isEqualTo(SEEDED_EXPENSES + ADDED_EXPENSES - deleted.size());
+
+        // Both timestamps are taken while the group lock is held, so they follow commit order
+        Timestamp settledAt = jdbcTemplate.queryForObject("SELECT created_at FROM settlements WHERE group_id = ?",
+                Timestamp.class, groupId);
+        for (Map<String, Object> row : deletedRows) {
+            assertThat((Timestamp) row.get("updated_at")).as("deletion of %s", row.get("id")).isBefore(settledAt);
+        }
+
+        Boolean ledgerMatches = transactionTemplate.execute(status -> reconciler.reconcileGroup(groupId));
+        assertThat(ledgerMatches).isTrue();
+    }
+
+    private void runConcurrently(List<Runnable> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                // Anything but the expected SplitwiseException on a delete fails the test here
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void settle(UUID groupId, UUID from, UUID to) {
+        CreateSettlementRequest settlement = new CreateSettlementRequest();
+        settlement.setGroupId(groupId);
+        settlement.setFromUser(from);
+        settlement.setToUser(to);
+        settlement.setAmount(new BigDecimal("5.00"));
+        settlementService.createSettlement(settlement);
+    }
+}
@@ -0,0 +1,93 @@
+package com.splitwise.clone.service.debt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExactDebtSimplifierTest {
+    private static final long NO_BUDGET_LIMIT = Long.MAX_VALUE / 2;
+
+    private final ExactDebtSimplifier exact = new ExactDebtSimplifier(NO_BUDGET_LIMIT);
+    private final GreedyDebtSimplifier greedy = new GreedyDebtSimplifier();
+
+    @Test
+    void findsFewerTransfersThanGreedyWhenZeroSumSubgroupsExist() {
+        // {3, -3}, {6, -6} and {5, 6, -11} settle on their own: 1 + 1 + 2 transfers
+        long[] balances = { 5, 6, 3, -3, -6, 6, -11 };
+
+        List<DebtSimplifier.Transfer> exactTransfers = exact.simplify(balances);
+        List<DebtSimplifier.Transfer> greedyTransfers = greedy.simplify(balances);
+
+        assertThat(exactTransfers).hasSize(4);
+        assertThat(greedyTransfers).hasSize(5);
+        assertSettles(balances, exactTransfers);
+        assertSettles(balances, greedyTransfers);
+    }
+
+    @Test
+    void beatsGreedyOnOtherKnownCases() {
+        assertThat(exact.simplify(new long[] { 9, -8, 6, -2, 3, 4, -12 })).hasSize(5);
+        assertThat(greedy.simplify(new long[] { 9, -8, 6, -2, 3, 4, -12 })).hasSize(6);
+        assertThat(exact.simplify(new long[] { 7, -6, -4, 7, 3, 2, -9 })).hasSize(5);
+        assertThat(greedy.simplify(new long[] { 7, -6, -4, 7, 3, 2, -9 })).hasSize(6);
+    }
+
+    @Test
+    void neverNeedsMoreTransfersThanGreedyAndAlwaysSettles() {
+        Random random = new Random(11);
+        for (int run = 0; run < 300; run++) {
+            long[] balances = new long[2 + random.nextInt(11)];
+            for (int i = 1; i < balances.length; i++) {
+                balances[i] = random.nextInt(41) - 20;
+                balances[0] -= balances[i];
+            }
+
+            List<DebtSimplifier.Transfer> transfers = exact.simplify(balances);
+
+            assertSettles(balances, transfers);
+            assertThat(transfers.size()).isLessThanOrEqualTo(greedy.simplify(balances).size());
+        }
+    }
+
+    @Test
+    void skipsSettledMembers() {
+        List<DebtSimplifier.Transfer> transfers = exact.simplify(new long[] { 0, 500, 0, -500 });
+
+        assertThat(transfers).containsExactly(new DebtSimplifier.Transfer(3, 1, 500));
+    }
+
+    @Test
+    void rejectsMoreMembersThanItCanEnumerate() {
+        long[] balances = new long[ExactDebtSimplifier.MAX_MEMBERS + 2];
+        for (int i = 0; i < balances.length; i++) {
+            balances[i] = i % 2 == 0 ? 1 : -1;
+        }
+
+        assertThatThrownBy(() -> exact.simplify(balances)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givesUpWhenTheTimeBudgetRunsOut() {
+        long[] balances = new long[ExactDebtSimplifier.MAX_MEMBERS];
+        for (int i = 0; i < balances.length; i++) {
+            balances[i] = i % 2 == 0 ? i + 1 : -i;
+        }
+
+        assertThat(new ExactDebtSimplifier(0).simplify(balances)).isNull();
+    }
+
+    private static void assertSettles(long[] balances, List<DebtSimplifier.Transfer> transfers) {
+        long[] remaining = balances.clone();
+        for (DebtSimplifier.Transfer transfer : transfers) {
+            assertThat(transfer.amount()).isPositive();
+            remaining[transfer.from()] += transfer.amount();
+            remaining[transfer.to()] -= transfer.amount();
+        }
+        assertThat(remaining).as("balances left after %s", Arrays.toString(balances)).containsOnly(0L);
+    }
+}
@@ -0,0 +1,64 @@
+package com.splitwise.clone.service.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void allocateGivesLeftoverUnitsToLargestRemainders() {
+        // 1001 * 2/4 = 500.5, 1001 * 1/4 = 250.25 twice: the one missing unit goes to the first share
+        assertThat(Money.allocate(1001, new long[] { 2, 1, 1 })).containsExactly(501, 250, 250);
+        // 1000 * 3333/10000 = 333.3 twice, 1000 * 3334/10000 = 333.4: the largest remainder wins
+        assertThat(Money.allocate(1000, new long[] { 3333, 3333, 3334 })).containsExactly(333, 333, 334);
+    }
+
+    @Test
+    void allocateBreaksTiesTowardsTheLowerIndex() {
+        assertThat(Money.allocate(2, new long[] { 1, 1, 1 })).containsExactly(1, 1, 0);
+        assertThat(Money.allocate(1, new long[] { 5, 5 })).containsExactly(1, 0);
+    }
+
+    @Test
+    void allocateAlwaysAddsUpToTheTotalAndStaysWithinOneUnitOfTheExactShare() {
+        Random random = new Random(42);
+        for (int run = 0; run < 1_000; run++) {
+            long total = random.nextInt(1_000_000);
+            long[] weights = new long[1 + random.nextInt(20)];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextInt(10_000);
+            }
+            weights[random.nextInt(weights.length)] += 1;
+            long weightTotal = Arrays.stream(weights).sum();
+
+            long[] shares = Money.allocate(total, weights);
+
+            assertThat(Arrays.stream(shares).sum()).isEqualTo(total);
+            for (int i = 0; i < shares.length; i++) {
+                long floor = total * weights[i] / weightTotal;
+                assertThat(shares[i]).isBetween(floor, floor + 1);
+            }
+        }
+    }
+
+    @Test
+    void allocateRejectsNegativeTotalsAndWeights() {
+        assertThatThrownBy(() -> Money.allocate(-1, new long[] { 1 })).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.allocate(10, new long[] { 1, -1 }))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.allocate(10, new long[] { 0, 0 }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void allocateEvenlyPutsTheExtraUnitsFirst() {
+        assertThat(Money.allocateEvenly(10_000, 3)).containsExactly(3334, 3333, 3333);
+        assertThat(Money.allocateEvenly(11, 4)).containsExactly(3, 3, 3, 2);
+        assertThat(Money.allocateEvenly(0, 2)).containsExactly(0, 0);
+    }
+}
@@ -0,0 +1,214 @@
+package com.splitwise.clone.service.split;
+
+import com.splitwise.clone.dto.CreateExpenseRequest;
+import com.splitwise.clone.dto.ExpenseItemRequest;
+import com.splitwise.clone.dto.ExpenseSplitRequest;
+import com.splitwise.clone.enums.SplitMode;
+import com.splitwise.clone.exception.SplitwiseException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SplitCalculatorTest {
+    private static final UUID A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final UUID C = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+
+    private final SplitCalculator calculator = new SplitCalculator();
+
+    @Test
+    void equalSplitGivesTheLeftoverCentToTheFirstSplit() {
+        SplitCalculator.Allocation allocation = calculate("100.00", "INR", SplitMode.EQUAL,
+                splits(null, (split, value) -> { }, A, B, C));
+
+        assertThat(owed(allocation)).containsExactly("33.34", "33.33", "33.33");
+    }
+
+    @Test
+    void equalSplitRoundsToTheCurrencyScale() {
+        SplitCalculator.Allocation allocation = calculate("100", "JPY", SplitMode.EQUAL,
+                splits(null, (split, value) -> { }, A, B, C));
+
+        assertThat(allocation.owed()).containsExactly(34, 33, 33);
+        assertThat(owed(allocation)).containsExactly("34", "33", "33");
+    }
+
+    @Test
+    void exactSplitKeepsTheAmountsAndMustAddUp() {
+        SplitCalculator.Allocation allocation = calculate("10.00", "INR", SplitMode.EXACT,
+                splits(new String[] { "2.50", "7.50" }, ExpenseSplitRequest::setOwedAmount, A, B));
+        assertThat(owed(allocation)).containsExactly("2.50", "7.50");
+
+        assertThatThrownBy(() -> calculate("10.00", "INR", SplitMode.EXACT,
+                splits(new String[] { "2.50", "7.49" }, ExpenseSplitRequest::setOwedAmount, A, B)))
+                .isInstanceOf(SplitwiseException.class)
+                .hasMessageContaining("add up to 9.99");
+    }
+
+    @Test
+    void exactSplitRejectsMoreDecimalsThanTheCurrencyHas() {
+        assertThatThrownBy(() -> calculate("10.00", "INR", SplitMode.EXACT,
+                splits(new String[] { "2.505", "7.495" }, ExpenseSplitRequest::setOwedAmount, A, B)))
+                .isInstanceOf(SplitwiseException.class)
+                .hasMessageContaining("more decimal places");
+    }
+
+    @Test
+    void percentageSplitGivesTheLeftoverCentToTheLargestRemainder() {
+        SplitCalculator.Allocation allocation = calculate("10.00", "INR", SplitMode.PERCENTAGE,
+                splits(new String[] { "33.33", "33.33", "33.34" }, ExpenseSplitRequest::setPercentage, A, B, C));
+
+        assertThat(owed(allocation)).containsExactly("3.33", "3.33", "3.34");
+    }
+
+    @Test
+    void percentagesMustAddUpToOneHundred() {
+        assertThatThrownBy(() -> calculate("10.00", "INR", SplitMode.PERCENTAGE,
+                splits(new String[] { "50", "49.9" }, ExpenseSplitRequest::setPercentage, A, B)))
+                .isInstanceOf(SplitwiseException.class)
+                .hasMessageContaining("add up to 99.9");
+    }
+
+    @Test
+    void sharesSplitInProportionIncludingFractionalShares() {
+        SplitCalculator.Allocation allocation = calculate("10.01", "INR", SplitMode.SHARES,
+                splits(new String[] { "2", "1", "1" }, ExpenseSplitRequest::setShares, A, B, C));
+        assertThat(owed(allocation)).containsExactly("5.01", "2.50", "2.50");
+
+        allocation = calculate("10.00", "INR", SplitMode.SHARES,
+                splits(new String[] { "1.5", "0.5" }, ExpenseSplitRequest::setShares, A, B));
+        assertThat(owed(allocation)).containsExactly("7.50", "2.50");
+    }
+
+    @Test
+    void sharesTiesGoToTheEarlierSplit() {
+        SplitCalculator.Allocation allocation = calculate("0.02", "INR", SplitMode.SHARES,
+                splits(new String[] { "1", "1", "1" }, ExpenseSplitRequest::setShares, A, B, C));
+
+        assertThat(owed(allocation)).containsExactly("0.01", "0.01", "0.00");
+    }
+
+    @Test
+    void itemizedSplitSpreadsTaxInProportionToEachUsersItems() {
+        CreateExpenseRequest request = request("44.00", SplitMode.ITEMIZED);
+        request.setItems(List.of(item("Pizza", "30.00", A, B, C), item("Beer", "10.00", A)));
+
+        SplitCalculator.Allocation allocation = calculator.calculate(request, "INR");
+
+        assertThat(allocation.userIds()).containsExactly(A, B, C);
+        // Items come to 20 / 10 / 10; the 4.00 of tax is shared 2:1:1
+        assertThat(owed(allocation)).containsExactly("22.00", "11.00", "11.00");
+    }
+
+    @Test
+    void itemizedSplitRoundsItemsAndTaxSoTheTotalStillMatches() {
+        CreateExpenseRequest request = request("10.01", SplitMode.ITEMIZED);
+        request.setItems(List.of(item("Pizza", "10.00", A, B, C)));
+
+        SplitCalculator.Allocation allocation = calculator.calculate(request, "INR");
+
+        // 10.00 / 3 leaves its extra cent on A, and so does the single cent of tax
+        assertThat(owed(allocation)).containsExactly("3.35", "3.33", "3.33");
+    }
+
+    @Test
+    void itemizedSplitRejectsItemsAboveTheExpenseAmount() {
+        CreateExpenseRequest request = request("10.00", SplitMode.ITEMIZED);
+        request.setItems(List.of(item("Pizza", "10.01", A, B)));
+
+        assertThatThrownBy(() -> calculator.calculate(request, "INR"))
+                .isInstanceOf(SplitwiseException.class)
+                .hasMessageContaining("more than the expense amount");
+    }
+
+    @Test
+    void aUserMayOnlyAppearInOneSplit() {
+        assertThatThrownBy(() -> calculate("10.00", "INR", SplitMode.EQUAL,
+                splits(null, (split, value) -> { }, A, B, A)))
+                .isInstanceOf(SplitwiseException.class)
+                .hasMessageContaining("more than one split");
+    }
+
+    @Test
+    void everyModeAddsUpToTheExpenseAmount() {
+        Random random = new Random(7);
+        for (int run = 0; run < 500; run++) {
+            BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(1_000_000), 2);
+            UUID[] users = new UUID[1 + random.nextInt(12)];
+            String[] shares = new String[users.length];
+            for (int i = 0; i < users.length; i++) {
+                users[i] = UUID.randomUUID();
+                shares[i] = String.valueOf(1 + random.nextInt(9));
+            }
+
+            long total = amount.movePointRight(2).longValueExact();
+            long tax = random.nextInt(500);
+            CreateExpenseRequest itemized = request(BigDecimal.valueOf(total + tax, 2).toPlainString(),
+                    SplitMode.ITEMIZED);
+            itemized.setItems(List.of(item("All", amount.toPlainString(), users)));
+
+            assertThat(sum(calculate(amount.toPlainString(), "INR", SplitMode.EQUAL,
+                    splits(null, (split, value) -> { }, users)))).isEqualTo(total);
+            assertThat(sum(calculate(amount.toPlainString(), "INR", SplitMode.SHARES,
+                    splits(shares, ExpenseSplitRequest::setShares, users)))).isEqualTo(total);
+            assertThat(sum(calculator.calculate(itemized, "INR"))).isEqualTo(total + tax);
+        }
+    }
+
+    private SplitCalculator.Allocation calculate(String amount, String currency, SplitMode mode,
+            List<ExpenseSplitRequest> splits) {
+        CreateExpenseRequest request = request(amount, mode);
+        request.setSplits(splits);
+        return calculator.calculate(request, currency);
+    }
+
+    private static CreateExpenseRequest request(String amount, SplitMode mode) {
+        CreateExpenseRequest request = new CreateExpenseRequest();
+        request.setAmount(new BigDecimal(amount));
+        request.setSplitMode(mode);
+        return request;
+    }
+
+    private static List<ExpenseSplitRequest> splits(String[] values, BiConsumer<ExpenseSplitRequest, BigDecimal> field,
+            UUID... users) {
+        List<ExpenseSplitRequest> splits = new ArrayList<>();
+        for (int i = 0; i < users.length; i++) {
+            ExpenseSplitRequest split = new ExpenseSplitRequest();
+            split.setUserId(users[i]);
+            if (values != null) {
+                field.accept(split, new BigDecimal(values[i]));
+            }
+            splits.add(split);
+        }
+        return splits;
+    }
+
+    private static ExpenseItemRequest item(String description, String amount, UUID... users) {
+        ExpenseItemRequest item = new ExpenseItemRequest();
+        item.setDescription(description);
+        item.setAmount(new BigDecimal(amount));
+        item.setUserIds(Arrays.asList(users));
+        return item;
+    }
+
+    private static long sum(SplitCalculator.Allocation allocation) {
+        return Arrays.stream(allocation.owed()).sum();
+    }
+
+    private static List<String> owed(SplitCalculator.Allocation allocation) {
+        List<String> owed = new ArrayList<>();
+        for (int i = 0; i < allocation.size(); i++) {
+            owed.add(allocation.owedAmount(i).toPlainString());
+        }
+        return owed;
+    }
+}
@@ -13,7 +13,8 @@ interface AddExpenseModalProps {
 
 interface Split {
     userId: string;
-    owedAmount: number;
+    owedAmount?: number;
+    percentage?: number;
 }
 
 const AddExpenseModal: React.FC<AddExpenseModalProps> = ({ groupId, members, onClose, onSuccess, currentUserId }) => {
@@ -26,6 +27,8 @@ const AddExpenseModal: React.FC<AddExpenseModalProps> = ({ groupId, members, onC
     const [percentages, setPercentages] = useState<Record<string, string>>({});
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState('');
+    // One key per opened form, so a retried or double-clicked submit is recorded once
+    const [idempotencyKey] = useState(() => crypto.randomUUID());
 
     const handleSubmit = async (e: React.FormEvent) => {
         e.preventDefault();
@@ -35,12 +38,9 @@ const AddExpenseModal: React.FC<AddExpenseModalProps> = ({ groupId, members, onC
         const totalAmount = parseFloat(amount);
         let splits: Split[] = [];
 
+        // The server works out the owed amounts for equal and percentage splits
         if (splitType === 'EQUAL') {
-            const splitAmount = totalAmount / selectedMembers.length;
-            splits = selectedMembers.map(userId => ({
-                userId,
-                owedAmount: splitAmount
-            }));
+            splits = selectedMembers.map(userId => ({ userId }));
         } else if (splitType === 'EXACT') {
             splits = selectedMembers.map(userId => ({
                 userId,
@@ -55,7 +55,7 @@ const AddExpenseModal: React.FC<AddExpenseModalProps> = ({ groupId, members, onC
         } else if (splitType === 'PERCENTAGE') {
             splits = selectedMembers.map(userId => ({
                 userId,
-                owedAmount: (totalAmount * parseFloat(percentages[userId] || '0')) / 100
+                percentage: parseFloat(percentages[userId] || '0')
             }));
             const sumPercent = selectedMembers.reduce((acc, userId) => acc + parseFloat(percentages[userId] || '0'), 0);
             if (Math.abs(sumPercent - 100) > 0.01) {
@@ -72,8 +72,9 @@ const AddExpenseModal: React.FC<AddExpenseModalProps> = ({ groupId, members, onC
                 amount: totalAmount,
                 paidBy,
                 createdBy: currentUserId,
+                splitMode: splitType,
                 splits
-            });
+            }, { headers: { 'Idempotency-Key': idempotencyKey } });
             onSuccess();
         } catch (err: any) {
             setError(err.response?.data?.error || 'Failed to add expense');
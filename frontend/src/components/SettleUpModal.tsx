@@ -17,6 +17,7 @@ const SettleUpModal: React.FC<SettleUpModalProps> = ({ groupId, members, current
     const [amount, setAmount] = useState('');
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState('');
+    const [idempotencyKey] = useState(() => crypto.randomUUID());
 
     const handleSubmit = async (e: React.FormEvent) => {
         e.preventDefault();
@@ -38,7 +39,7 @@ const SettleUpModal: React.FC<SettleUpModalProps> = ({ groupId, members, current
                 fromUser,
                 toUser,
                 amount: parseFloat(amount)
-            });
+            }, { headers: { 'Idempotency-Key': idempotencyKey } });
             onSuccess();
         } catch (err: any) {
             setError(err.response?.data?.error || 'Failed to record settlement');